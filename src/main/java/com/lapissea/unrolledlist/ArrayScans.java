@@ -0,0 +1,214 @@
+package com.lapissea.unrolledlist;
+
+/**
+ * Scans over a range of a primitive node array. When the jdk.incubator.vector module is present
+ * ({@code --add-modules jdk.incubator.vector}) they run on {@link VectorKernels}, otherwise on plain loops. Setting the
+ * system property {@code unrolledlist.vector} to false forces the plain loops.
+ */
+final class ArrayScans{
+	
+	static final boolean VECTOR = Boolean.parseBoolean(System.getProperty("unrolledlist.vector", "true")) &&
+	                              ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+	
+	/**
+	 * Shorter ranges are not worth setting up vectors for
+	 */
+	private static final int MIN_VECTOR = 16;
+	
+	private ArrayScans(){ }
+	
+	static int indexOf(int[] arr, int from, int to, int value){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.indexOf(arr, from, to, value);
+		for(int i = from; i<to; i++){
+			if(arr[i] == value) return i;
+		}
+		return -1;
+	}
+	static int lastIndexOf(int[] arr, int from, int to, int value){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.lastIndexOf(arr, from, to, value);
+		for(int i = to - 1; i>=from; i--){
+			if(arr[i] == value) return i;
+		}
+		return -1;
+	}
+	static int count(int[] arr, int from, int to, ValueComparison op, int value){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.count(arr, from, to, op, value);
+		//One branch free loop per operator so the comparison is not dispatched per element
+		int count = 0;
+		switch(op){
+			case EQ -> {
+				for(int i = from; i<to; i++) count += arr[i] == value? 1 : 0;
+			}
+			case NE -> {
+				for(int i = from; i<to; i++) count += arr[i] != value? 1 : 0;
+			}
+			case LT -> {
+				for(int i = from; i<to; i++) count += arr[i]<value? 1 : 0;
+			}
+			case LE -> {
+				for(int i = from; i<to; i++) count += arr[i]<=value? 1 : 0;
+			}
+			case GT -> {
+				for(int i = from; i<to; i++) count += arr[i]>value? 1 : 0;
+			}
+			case GE -> {
+				for(int i = from; i<to; i++) count += arr[i]>=value? 1 : 0;
+			}
+		}
+		return count;
+	}
+	static int sum(int[] arr, int from, int to){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.sum(arr, from, to);
+		int sum = 0;
+		for(int i = from; i<to; i++) sum += arr[i];
+		return sum;
+	}
+	/**
+	 * The range needs to be non empty
+	 */
+	static int min(int[] arr, int from, int to){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.min(arr, from, to);
+		var min = arr[from];
+		for(int i = from + 1; i<to; i++) min = Math.min(min, arr[i]);
+		return min;
+	}
+	/**
+	 * The range needs to be non empty
+	 */
+	static int max(int[] arr, int from, int to){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.max(arr, from, to);
+		var max = arr[from];
+		for(int i = from + 1; i<to; i++) max = Math.max(max, arr[i]);
+		return max;
+	}
+	
+	static int indexOf(long[] arr, int from, int to, long value){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.indexOf(arr, from, to, value);
+		for(int i = from; i<to; i++){
+			if(arr[i] == value) return i;
+		}
+		return -1;
+	}
+	static int lastIndexOf(long[] arr, int from, int to, long value){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.lastIndexOf(arr, from, to, value);
+		for(int i = to - 1; i>=from; i--){
+			if(arr[i] == value) return i;
+		}
+		return -1;
+	}
+	static int count(long[] arr, int from, int to, ValueComparison op, long value){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.count(arr, from, to, op, value);
+		//One branch free loop per operator so the comparison is not dispatched per element
+		int count = 0;
+		switch(op){
+			case EQ -> {
+				for(int i = from; i<to; i++) count += arr[i] == value? 1 : 0;
+			}
+			case NE -> {
+				for(int i = from; i<to; i++) count += arr[i] != value? 1 : 0;
+			}
+			case LT -> {
+				for(int i = from; i<to; i++) count += arr[i]<value? 1 : 0;
+			}
+			case LE -> {
+				for(int i = from; i<to; i++) count += arr[i]<=value? 1 : 0;
+			}
+			case GT -> {
+				for(int i = from; i<to; i++) count += arr[i]>value? 1 : 0;
+			}
+			case GE -> {
+				for(int i = from; i<to; i++) count += arr[i]>=value? 1 : 0;
+			}
+		}
+		return count;
+	}
+	static long sum(long[] arr, int from, int to){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.sum(arr, from, to);
+		long sum = 0;
+		for(int i = from; i<to; i++) sum += arr[i];
+		return sum;
+	}
+	/**
+	 * The range needs to be non empty
+	 */
+	static long min(long[] arr, int from, int to){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.min(arr, from, to);
+		var min = arr[from];
+		for(int i = from + 1; i<to; i++) min = Math.min(min, arr[i]);
+		return min;
+	}
+	/**
+	 * The range needs to be non empty
+	 */
+	static long max(long[] arr, int from, int to){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.max(arr, from, to);
+		var max = arr[from];
+		for(int i = from + 1; i<to; i++) max = Math.max(max, arr[i]);
+		return max;
+	}
+	
+	static int indexOf(double[] arr, int from, int to, double value){
+		if(VECTOR && to - from>=MIN_VECTOR && !Double.isNaN(value)) return VectorKernels.indexOf(arr, from, to, value);
+		for(int i = from; i<to; i++){
+			if(Double.compare(arr[i], value) == 0) return i;
+		}
+		return -1;
+	}
+	static int lastIndexOf(double[] arr, int from, int to, double value){
+		if(VECTOR && to - from>=MIN_VECTOR && !Double.isNaN(value)) return VectorKernels.lastIndexOf(arr, from, to, value);
+		for(int i = to - 1; i>=from; i--){
+			if(Double.compare(arr[i], value) == 0) return i;
+		}
+		return -1;
+	}
+	static int count(double[] arr, int from, int to, ValueComparison op, double value){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.count(arr, from, to, op, value);
+		//One branch free loop per operator so the comparison is not dispatched per element
+		int count = 0;
+		switch(op){
+			case EQ -> {
+				for(int i = from; i<to; i++) count += arr[i] == value? 1 : 0;
+			}
+			case NE -> {
+				for(int i = from; i<to; i++) count += arr[i] != value? 1 : 0;
+			}
+			case LT -> {
+				for(int i = from; i<to; i++) count += arr[i]<value? 1 : 0;
+			}
+			case LE -> {
+				for(int i = from; i<to; i++) count += arr[i]<=value? 1 : 0;
+			}
+			case GT -> {
+				for(int i = from; i<to; i++) count += arr[i]>value? 1 : 0;
+			}
+			case GE -> {
+				for(int i = from; i<to; i++) count += arr[i]>=value? 1 : 0;
+			}
+		}
+		return count;
+	}
+	static double sum(double[] arr, int from, int to){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.sum(arr, from, to);
+		double sum = 0;
+		for(int i = from; i<to; i++) sum += arr[i];
+		return sum;
+	}
+	/**
+	 * The range needs to be non empty
+	 */
+	static double min(double[] arr, int from, int to){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.min(arr, from, to);
+		var min = arr[from];
+		for(int i = from + 1; i<to; i++) min = Math.min(min, arr[i]);
+		return min;
+	}
+	/**
+	 * The range needs to be non empty
+	 */
+	static double max(double[] arr, int from, int to){
+		if(VECTOR && to - from>=MIN_VECTOR) return VectorKernels.max(arr, from, to);
+		var max = arr[from];
+		for(int i = from + 1; i<to; i++) max = Math.max(max, arr[i]);
+		return max;
+	}
+}
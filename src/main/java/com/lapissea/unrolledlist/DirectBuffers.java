@@ -0,0 +1,30 @@
+package com.lapissea.unrolledlist;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Small shared pool of direct buffers for channel IO. Direct buffers are expensive to allocate and are only freed by the
+ * garbage collector, so every stream borrows one and gives it back when done.
+ */
+final class DirectBuffers{
+	
+	static final int SIZE = 1<<17;
+	
+	private static final ByteBuffer[] POOL = new ByteBuffer[4];
+	private static       int          pooled;
+	
+	private DirectBuffers(){ }
+	
+	static synchronized ByteBuffer take(){
+		if(pooled>0){
+			var buf = POOL[--pooled];
+			POOL[pooled] = null;
+			return buf.clear();
+		}
+		return ByteBuffer.allocateDirect(SIZE);
+	}
+	
+	static synchronized void give(ByteBuffer buf){
+		if(pooled<POOL.length) POOL[pooled++] = buf;
+	}
+}
@@ -0,0 +1,191 @@
+package com.lapissea.unrolledlist;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts elements to and from bytes for {@link UnrolledLinkedList#writeTo} and {@link UnrolledLinkedList#readFrom}.
+ * A codec needs to read back exactly the bytes it wrote. The buffers always have enough space for the element so
+ * implementations do not need to check.
+ * <p>
+ * Fixed size codecs should override {@link #fixedSize()} and the bulk methods, the stream then does not ask for the
+ * size of every element.
+ */
+public interface ElementCodec<T>{
+	
+	/**
+	 * Integers as 4 bytes, does not support null
+	 */
+	ElementCodec<Integer> INT = new ElementCodec<>(){
+		@Override
+		public int fixedSize(){ return Integer.BYTES; }
+		@Override
+		public int size(Integer value){ return Integer.BYTES; }
+		@Override
+		public void write(ByteBuffer dest, Integer value){ dest.putInt(value); }
+		@Override
+		public Integer read(ByteBuffer src){ return src.getInt(); }
+		
+		@Override
+		public void writeAll(ByteBuffer dest, Object[] src, int from, int to){
+			var pos = dest.position();
+			for(int i = from; i<to; i++, pos += Integer.BYTES){
+				dest.putInt(pos, (Integer)src[i]);
+			}
+			dest.position(pos);
+		}
+		@Override
+		public void readAll(ByteBuffer src, Object[] dest, int from, int to){
+			var pos = src.position();
+			for(int i = from; i<to; i++, pos += Integer.BYTES){
+				dest[i] = src.getInt(pos);
+			}
+			src.position(pos);
+		}
+	};
+	
+	/**
+	 * Longs as 8 bytes, does not support null
+	 */
+	ElementCodec<Long> LONG = new ElementCodec<>(){
+		@Override
+		public int fixedSize(){ return Long.BYTES; }
+		@Override
+		public int size(Long value){ return Long.BYTES; }
+		@Override
+		public void write(ByteBuffer dest, Long value){ dest.putLong(value); }
+		@Override
+		public Long read(ByteBuffer src){ return src.getLong(); }
+		
+		@Override
+		public void writeAll(ByteBuffer dest, Object[] src, int from, int to){
+			var pos = dest.position();
+			for(int i = from; i<to; i++, pos += Long.BYTES){
+				dest.putLong(pos, (Long)src[i]);
+			}
+			dest.position(pos);
+		}
+		@Override
+		public void readAll(ByteBuffer src, Object[] dest, int from, int to){
+			var pos = src.position();
+			for(int i = from; i<to; i++, pos += Long.BYTES){
+				dest[i] = src.getLong(pos);
+			}
+			src.position(pos);
+		}
+	};
+	
+	/**
+	 * Doubles as 8 bytes, does not support null
+	 */
+	ElementCodec<Double> DOUBLE = new ElementCodec<>(){
+		@Override
+		public int fixedSize(){ return Double.BYTES; }
+		@Override
+		public int size(Double value){ return Double.BYTES; }
+		@Override
+		public void write(ByteBuffer dest, Double value){ dest.putDouble(value); }
+		@Override
+		public Double read(ByteBuffer src){ return src.getDouble(); }
+		
+		@Override
+		public void writeAll(ByteBuffer dest, Object[] src, int from, int to){
+			var pos = dest.position();
+			for(int i = from; i<to; i++, pos += Double.BYTES){
+				dest.putDouble(pos, (Double)src[i]);
+			}
+			dest.position(pos);
+		}
+		@Override
+		public void readAll(ByteBuffer src, Object[] dest, int from, int to){
+			var pos = src.position();
+			for(int i = from; i<to; i++, pos += Double.BYTES){
+				dest[i] = src.getDouble(pos);
+			}
+			src.position(pos);
+		}
+	};
+	
+	/**
+	 * Strings as a length prefixed UTF-8 byte sequence. Null is written as length -1.
+	 */
+	ElementCodec<String> STRING = new ElementCodec<>(){
+		@Override
+		public int size(String value){
+			if(value == null) return Integer.BYTES;
+			var len = value.length();
+			var res = Integer.BYTES + len;
+			for(int i = 0; i<len; i++){
+				var c = value.charAt(i);
+				if(c>=0x80){
+					if(c<0x800) res++;
+					else if(!Character.isSurrogate(c)) res += 2;
+					else if(Character.isHighSurrogate(c) && i + 1<len && Character.isLowSurrogate(value.charAt(i + 1))){
+						res += 2;
+						i++;
+					}
+					//An unpaired surrogate is encoded as a single '?'
+				}
+			}
+			return res;
+		}
+		@Override
+		public void write(ByteBuffer dest, String value){
+			if(value == null){
+				dest.putInt(-1);
+				return;
+			}
+			var bytes = value.getBytes(StandardCharsets.UTF_8);
+			dest.putInt(bytes.length);
+			dest.put(bytes);
+		}
+		@Override
+		public String read(ByteBuffer src){
+			var len = src.getInt();
+			if(len == -1) return null;
+			String val;
+			if(src.hasArray()){
+				val = new String(src.array(), src.arrayOffset() + src.position(), len, StandardCharsets.UTF_8);
+			}else{
+				var bytes = new byte[len];
+				src.get(src.position(), bytes);
+				val = new String(bytes, StandardCharsets.UTF_8);
+			}
+			src.position(src.position() + len);
+			return val;
+		}
+	};
+	
+	/**
+	 * @return the number of bytes every element takes, or -1 if it depends on the value
+	 */
+	default int fixedSize(){ return -1; }
+	
+	/**
+	 * @return the exact number of bytes {@link #write} puts for the value
+	 */
+	int size(T value);
+	
+	void write(ByteBuffer dest, T value);
+	
+	T read(ByteBuffer src);
+	
+	/**
+	 * Writes the elements src[from, to)
+	 */
+	@SuppressWarnings("unchecked")
+	default void writeAll(ByteBuffer dest, Object[] src, int from, int to){
+		for(int i = from; i<to; i++){
+			write(dest, (T)src[i]);
+		}
+	}
+	
+	/**
+	 * Reads elements in to dest[from, to)
+	 */
+	default void readAll(ByteBuffer src, Object[] dest, int from, int to){
+		for(int i = from; i<to; i++){
+			dest[i] = read(src);
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package com.lapissea.unrolledlist;
+
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A list that is also a deque. Both List and Deque declare {@code reversed()} from JDK 21 on, with unrelated return types,
+ * so a class implementing both needs a return type that is both. This is that type, in the same way
+ * {@link java.util.LinkedList#reversed()} returns a LinkedList. The end methods are declared again for the same reason,
+ * List has defaults for them and Deque has abstract versions.
+ */
+public interface ListDeque<T> extends List<T>, Deque<T>{
+	
+	/**
+	 * @return a reverse ordered view of this collection. Changes to either are visible in the other.
+	 */
+	ListDeque<T> reversed();
+	
+	@Override
+	void addFirst(T t);
+	@Override
+	void addLast(T t);
+	@Override
+	T getFirst();
+	@Override
+	T getLast();
+	@Override
+	T removeFirst();
+	@Override
+	T removeLast();
+}
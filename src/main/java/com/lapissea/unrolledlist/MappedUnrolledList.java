@@ -0,0 +1,597 @@
+package com.lapissea.unrolledlist;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Version of {@link UnrolledLinkedList} that lives in a memory mapped file, so it can be larger than the heap. Every
+ * node is a fixed size page of the file with the start, size and the prev/next page links in its header. All edits are
+ * done in place in the mapping and reopening a file only reads its header.
+ * <p>
+ * Elements are stored with a fixed size {@link ElementCodec}. Changes reach the file when the OS writes the pages back,
+ * {@link #force()} does it right away. The file is not crash safe, an interrupted write can leave it inconsistent.
+ * The file grows in steps of 16MiB, the unused space is sparse on most file systems.
+ */
+public final class MappedUnrolledList<T> extends AbstractList<T> implements AutoCloseable{
+	
+	/**
+	 * "ULM1"
+	 */
+	private static final int MAGIC   = 0x554C4D31;
+	private static final int VERSION = 1;
+	
+	//File header, stored in page 0
+	private static final int H_MAGIC = 0, H_VERSION = 4, H_PAGE_SIZE = 8, H_ELEMENT_SIZE = 12, H_SIZE = 16, H_HEAD = 20, H_TAIL = 24, H_PAGES = 28, H_FREE = 32;
+	private static final int FILE_HEADER = 36;
+	
+	//Page header
+	private static final int P_PREV = 0, P_NEXT = 4, P_START = 8, P_SIZE = 12;
+	private static final int PAGE_HEADER = 16;
+	
+	private static final int NONE        = -1;
+	private static final int CHUNK_BYTES = 1<<24;
+	
+	public static final int DEFAULT_PAGE_SIZE = 4096;
+	
+	/**
+	 * View of a page header and its elements. Only holds the page id and where it is mapped, all state is in the file.
+	 */
+	private final class Page{
+		private final int              id;
+		private final MappedByteBuffer buf;
+		private final int              base;
+		
+		private Page(int id){
+			this.id = id;
+			buf = chunk(id>>>chunkShift);
+			base = (id&chunkMask)*pageSize;
+		}
+		
+		private int start(){ return buf.getInt(base + P_START); }
+		private int size(){ return buf.getInt(base + P_SIZE); }
+		private void start(int start){ buf.putInt(base + P_START, start); }
+		private void size(int size){ buf.putInt(base + P_SIZE, size); }
+		
+		private Page next(){
+			var n = buf.getInt(base + P_NEXT);
+			return n == NONE? null : new Page(n);
+		}
+		private Page prev(){
+			var p = buf.getInt(base + P_PREV);
+			return p == NONE? null : new Page(p);
+		}
+		private void next(Page next){ buf.putInt(base + P_NEXT, next == null? NONE : next.id); }
+		private void prev(Page prev){ buf.putInt(base + P_PREV, prev == null? NONE : prev.id); }
+		
+		private int offset(int truePos){
+			return base + PAGE_HEADER + truePos*elementSize;
+		}
+		
+		private T get(int localPos){
+			Objects.checkIndex(localPos, size());
+			return read(start() + localPos);
+		}
+		private T read(int truePos){
+			buf.position(offset(truePos));
+			return codec.read(buf);
+		}
+		private void write(int truePos, T element){
+			buf.position(offset(truePos));
+			codec.write(buf, element);
+		}
+		
+		private void add(int localPos, T element){
+			var lSize = size();
+			Objects.checkIndex(localPos, lSize + 1);
+			var lStart = start();
+			
+			//Insert and consume start space
+			if(lStart>0 && localPos<lSize/2){
+				var lStartM1 = lStart - 1;
+				if(localPos>0){
+					move(this, lStart, this, lStartM1, localPos);
+				}
+				write(lStartM1 + localPos, element);
+				start(lStartM1);
+				size(lSize + 1);
+				return;
+			}
+			
+			if(lSize == capacity){
+				//Totally full, try pushing in to neighbour (position threshold is biased towards prev to passively pack data)
+				if(localPos<=lSize/2){
+					if(addByPrevTransfer(localPos, element)) return;
+				}
+				if(localPos>=lSize*3/4){
+					if(addByNextTransfer(localPos, element)) return;
+				}
+				//Totally full and expand node space by allocating and splitting data
+				if(expand(localPos)){
+					next().add(localPos - size(), element);
+					return;
+				}
+				lSize = size();
+			}
+			
+			var truePos  = lStart + localPos;
+			var trueSize = lStart + lSize;
+			
+			//End space is full but there is space at start, move to 0
+			if(lStart>0 && trueSize>=capacity){
+				move(this, lStart, this, 0, lSize);
+				start(0);
+				trueSize = lSize;
+				truePos = localPos;
+			}
+			
+			if(trueSize>truePos){
+				move(this, truePos, this, truePos + 1, trueSize - truePos);
+			}
+			write(truePos, element);
+			size(lSize + 1);
+		}
+		
+		private boolean addByNextTransfer(int localPos, T element){
+			var lNext = next();
+			if(lNext == null || lNext.full()) return false;
+			
+			var lSize     = size();
+			var nextStart = lNext.start();
+			var toMove    = lSize - localPos;
+			
+			if(nextStart<toMove) return false;
+			if(localPos == lSize){
+				lNext.add(0, element);
+				return true;
+			}
+			
+			var lStart = start();
+			move(this, lStart + lSize - toMove, lNext, nextStart - toMove, toMove);
+			write(lStart + localPos, element);
+			size(lSize - (toMove - 1));
+			lNext.start(nextStart - toMove);
+			lNext.size(lNext.size() + toMove);
+			return true;
+		}
+		
+		private boolean addByPrevTransfer(int localPos, T element){
+			var lPrev = prev();
+			if(lPrev == null) return false;
+			
+			var prevSize = lPrev.size();
+			var prevEnd  = prevSize + lPrev.start();
+			
+			if(prevEnd + localPos>capacity) return false;
+			if(localPos == 0){
+				lPrev.add(prevSize, element);
+				return true;
+			}
+			
+			var lStart = start();
+			move(this, lStart, lPrev, prevEnd, localPos);
+			var prev = localPos - 1;
+			write(lStart + prev, element);
+			size(size() - prev);
+			start(lStart + prev);
+			lPrev.size(prevSize + localPos);
+			return true;
+		}
+		
+		private boolean expand(int localPos){
+			int s;
+			if((s = size()) != capacity) return false;
+			
+			var n      = optimalNext();
+			var nStart = n.start();
+			var nSize  = n.size();
+			
+			int copyPos   = 0;
+			var available = capacity - (nStart + nSize);
+			
+			var amount = Math.min(s/4, Math.max(1, available - 1));
+			if(nSize>0){
+				var toMove = Math.max(0, amount - nStart);
+				if(toMove>0){
+					move(n, nStart, n, nStart + toMove, nSize);
+				}
+				copyPos = nStart + toMove - amount;
+			}
+			move(this, start() + s - amount, n, copyPos, amount);
+			
+			n.start(copyPos);
+			n.size(nSize + amount);
+			size(s -= amount);
+			
+			return localPos>s;
+		}
+		
+		private boolean full(){
+			return size()>=capacity*3/4;
+		}
+		private Page optimalNext(){
+			var n = next();
+			if(n == null || n.full()){
+				n = insertNext();
+			}
+			return n;
+		}
+		
+		private Page insertNext(){
+			var delta1 = allocatePage();
+			var delta2 = next();
+			delta1.prev(this);
+			delta1.next(delta2);
+			if(delta2 != null) delta2.prev(delta1);
+			else tail = delta1.id;
+			next(delta1);
+			return delta1;
+		}
+		
+		private void remove(int localPos){
+			var s = size();
+			Objects.checkIndex(localPos, s);
+			var lStart  = start();
+			int newSize = s - 1;
+			if(localPos<s/2){
+				if(localPos>0){
+					move(this, lStart, this, lStart + 1, localPos);
+				}
+				start(newSize == 0? capacity/2 : lStart + 1);
+			}else{
+				if(newSize>localPos){
+					int i = lStart + localPos;
+					move(this, i + 1, this, i, lStart + newSize - i);
+				}
+			}
+			size(newSize);
+			
+			if(newSize<capacity/2){
+				if(newSize == 0) removeSelf();
+				else defrag();
+			}
+		}
+		
+		private void defrag(){
+			int siz    = size();
+			int lStart = start();
+			var lPrev  = prev();
+			var lNext  = next();
+			
+			if(lPrev != null){
+				int off;
+				if(siz + (off = lPrev.size() + lPrev.start())<=capacity){
+					move(this, lStart, lPrev, off, siz);
+					lPrev.size(lPrev.size() + siz);
+					removeSelf();
+					return;
+				}
+			}
+			if(lNext != null){
+				int off;
+				var nextSize = lNext.size();
+				if((off = siz + lStart) + nextSize<=capacity){
+					move(lNext, lNext.start(), this, off, nextSize);
+					size(siz + nextSize);
+					lNext.removeSelf();
+					return;
+				}
+			}
+			
+			if(lPrev != null && lNext != null){
+				var prevEnd   = lPrev.size() + lPrev.start();
+				var nextStart = lNext.start();
+				
+				var prevToAdd = capacity - prevEnd;
+				var nextToAdd = nextStart;
+				
+				var remaining = siz - prevToAdd - nextToAdd;
+				if(remaining>0) return;
+				if(remaining<0){
+					nextToAdd += remaining;
+				}
+				if(nextToAdd<=0) throw new IllegalStateException();
+				
+				move(this, lStart, lPrev, prevEnd, prevToAdd);
+				lPrev.size(lPrev.size() + prevToAdd);
+				
+				move(this, lStart + prevToAdd, lNext, nextStart - nextToAdd, nextToAdd);
+				lNext.start(nextStart - nextToAdd);
+				lNext.size(lNext.size() + nextToAdd);
+				
+				removeSelf();
+			}
+		}
+		
+		private void removeSelf(){
+			var lPrev = prev();
+			var lNext = next();
+			if(lPrev != null) lPrev.next(lNext);
+			else head = lNext == null? NONE : lNext.id;
+			if(lNext != null) lNext.prev(lPrev);
+			else tail = lPrev == null? NONE : lPrev.id;
+			
+			//Freed pages are chained through their next link
+			buf.putInt(base + P_NEXT, free);
+			free = id;
+		}
+	}
+	
+	/**
+	 * Copies elements between or within pages, overlapping ranges are fine
+	 */
+	private void move(Page src, int srcPos, Page dest, int destPos, int count){
+		dest.buf.put(dest.offset(destPos), src.buf, src.offset(srcPos), count*elementSize);
+	}
+	
+	private final FileChannel     channel;
+	private final ElementCodec<T> codec;
+	private final int             pageSize;
+	private final int             elementSize;
+	private final int             capacity;
+	private final int             chunkShift, chunkMask;
+	
+	private MappedByteBuffer[] chunks = new MappedByteBuffer[1];
+	
+	private int size;
+	private int head = NONE, tail = NONE;
+	private int pages, free = NONE;
+	
+	/**
+	 * Page of the last lookup and the index of its first element, so sequential access does not walk from the ends.
+	 * Reset on every structural change.
+	 */
+	private Page fingerPage;
+	private int  fingerStart;
+	
+	/**
+	 * Opens or creates a list file with the default page size
+	 */
+	public static <T> MappedUnrolledList<T> open(Path file, ElementCodec<T> codec) throws IOException{
+		return open(file, codec, DEFAULT_PAGE_SIZE);
+	}
+	/**
+	 * Opens or creates a list file. An existing file keeps the page size it was created with.
+	 *
+	 * @param pageSize bytes per page, a power of 2 between 64 and 16MiB
+	 */
+	public static <T> MappedUnrolledList<T> open(Path file, ElementCodec<T> codec, int pageSize) throws IOException{
+		var channel = FileChannel.open(file, READ, WRITE, CREATE);
+		try{
+			return new MappedUnrolledList<>(channel, codec, pageSize);
+		}catch(Throwable e){
+			channel.close();
+			throw e;
+		}
+	}
+	
+	private MappedUnrolledList(FileChannel channel, ElementCodec<T> codec, int pageSize) throws IOException{
+		this.channel = channel;
+		this.codec = codec;
+		elementSize = codec.fixedSize();
+		if(elementSize<=0) throw new IllegalArgumentException("The codec needs to have a fixed size");
+		
+		var fresh = channel.size()<FILE_HEADER;
+		if(!fresh){
+			var header = ByteBuffer.allocate(FILE_HEADER);
+			while(header.hasRemaining()){
+				if(channel.read(header, header.position())<0) throw new IOException("Truncated header");
+			}
+			if(header.getInt(H_MAGIC) != MAGIC) throw new IOException("Not a mapped list file");
+			if(header.getInt(H_VERSION) != VERSION) throw new IOException("Unsupported version " + header.getInt(H_VERSION));
+			if(header.getInt(H_ELEMENT_SIZE) != elementSize){
+				throw new IOException("File has elements of " + header.getInt(H_ELEMENT_SIZE) + " bytes but the codec has " + elementSize);
+			}
+			pageSize = header.getInt(H_PAGE_SIZE);
+		}
+		if(pageSize<64 || pageSize>CHUNK_BYTES || Integer.bitCount(pageSize) != 1){
+			throw new IllegalArgumentException("Page size needs to be a power of 2 between 64 and " + CHUNK_BYTES + ", was " + pageSize);
+		}
+		this.pageSize = pageSize;
+		capacity = (pageSize - PAGE_HEADER)/elementSize;
+		if(capacity<4) throw new IllegalArgumentException("A page needs to fit at least 4 elements");
+		
+		var pagesPerChunk = CHUNK_BYTES/pageSize;
+		chunkShift = Integer.numberOfTrailingZeros(pagesPerChunk);
+		chunkMask = pagesPerChunk - 1;
+		
+		var h = chunk(0);
+		if(fresh){
+			h.putInt(H_MAGIC, MAGIC);
+			h.putInt(H_VERSION, VERSION);
+			h.putInt(H_PAGE_SIZE, pageSize);
+			h.putInt(H_ELEMENT_SIZE, elementSize);
+			pages = 1;
+			syncHeader();
+		}else{
+			size = h.getInt(H_SIZE);
+			head = h.getInt(H_HEAD);
+			tail = h.getInt(H_TAIL);
+			pages = h.getInt(H_PAGES);
+			free = h.getInt(H_FREE);
+		}
+	}
+	
+	private MappedByteBuffer chunk(int index){
+		var c = chunks;
+		if(c == null) throw new IllegalStateException("List is closed");
+		if(index>=c.length) chunks = c = Arrays.copyOf(c, Math.max(index + 1, c.length*2));
+		var buf = c[index];
+		if(buf == null){
+			try{
+				c[index] = buf = channel.map(FileChannel.MapMode.READ_WRITE, (long)index*CHUNK_BYTES, CHUNK_BYTES);
+			}catch(IOException e){
+				throw new IllegalStateException("Failed to map the file", e);
+			}
+		}
+		return buf;
+	}
+	
+	/**
+	 * Reuses a freed page or takes a new one from the end of the file
+	 */
+	private Page allocatePage(){
+		Page page;
+		if(free != NONE){
+			page = new Page(free);
+			free = page.buf.getInt(page.base + P_NEXT);
+		}else{
+			page = new Page(pages++);
+		}
+		page.prev(null);
+		page.next(null);
+		page.start(0);
+		page.size(0);
+		return page;
+	}
+	
+	private void syncHeader(){
+		var h = chunk(0);
+		h.putInt(H_SIZE, size);
+		h.putInt(H_HEAD, head);
+		h.putInt(H_TAIL, tail);
+		h.putInt(H_PAGES, pages);
+		h.putInt(H_FREE, free);
+	}
+	
+	/**
+	 * Finds the page containing the index and moves the finger to it. The local position is {@code index - fingerStart}.
+	 */
+	private Page resolve(int index){
+		var page  = fingerPage;
+		var start = fingerStart;
+		if(page != null){
+			var dist = index - start;
+			if(dist>=0 && dist<page.size()) return page;
+		}
+		if(page == null || Math.abs(index - start)>Math.min(index, size - index)){
+			if(index<size - index){
+				page = new Page(head);
+				start = 0;
+			}else{
+				page = new Page(tail);
+				start = size - page.size();
+			}
+		}
+		while(index<start){
+			page = page.prev();
+			start -= page.size();
+		}
+		int s;
+		while(index>=start + (s = page.size())){
+			start += s;
+			page = page.next();
+		}
+		fingerPage = page;
+		fingerStart = start;
+		return page;
+	}
+	
+	@Override
+	public T get(int index){
+		Objects.checkIndex(index, size);
+		var page = resolve(index);
+		return page.get(index - fingerStart);
+	}
+	
+	@Override
+	public T set(int index, T element){
+		Objects.checkIndex(index, size);
+		var page    = resolve(index);
+		var truePos = page.start() + index - fingerStart;
+		var old     = page.read(truePos);
+		page.write(truePos, element);
+		return old;
+	}
+	
+	@Override
+	public boolean add(T element){
+		if(tail == NONE){
+			var page = allocatePage();
+			head = tail = page.id;
+		}
+		var last = new Page(tail);
+		last.add(last.size(), element);
+		size++;
+		fingerPage = null;
+		syncHeader();
+		return true;
+	}
+	
+	@Override
+	public void add(int index, T element){
+		Objects.checkIndex(index, size + 1);
+		if(index == size){
+			add(element);
+			return;
+		}
+		var page = resolve(index);
+		page.add(index - fingerStart, element);
+		size++;
+		fingerPage = null;
+		syncHeader();
+	}
+	
+	@Override
+	public T remove(int index){
+		Objects.checkIndex(index, size);
+		var page     = resolve(index);
+		var localPos = index - fingerStart;
+		var old      = page.get(localPos);
+		page.remove(localPos);
+		size--;
+		fingerPage = null;
+		syncHeader();
+		return old;
+	}
+	
+	@Override
+	public int size(){
+		return size;
+	}
+	
+	/**
+	 * Frees all pages. The file keeps its size and the pages are reused by later adds.
+	 */
+	@Override
+	public void clear(){
+		size = 0;
+		head = tail = NONE;
+		pages = 1;
+		free = NONE;
+		fingerPage = null;
+		syncHeader();
+	}
+	
+	/**
+	 * Writes all changes to the storage device
+	 */
+	public void force(){
+		var c = chunks;
+		if(c == null) throw new IllegalStateException("List is closed");
+		for(var buf : c){
+			if(buf != null) buf.force();
+		}
+	}
+	
+	/**
+	 * Forces all changes and closes the file. The mapping is released once it is garbage collected.
+	 */
+	@Override
+	public void close() throws IOException{
+		if(chunks == null) return;
+		force();
+		chunks = null;
+		fingerPage = null;
+		channel.close();
+	}
+}
@@ -0,0 +1,436 @@
+package com.lapissea.unrolledlist;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread safe {@link UnrolledLinkedList} for read mostly use. Positional reads are optimistic and do not block each
+ * other or take any lock unless a write happened at the same time. All writes take one exclusive lock, so adding
+ * writer threads does not add write throughput. Write heavy workloads are better served by splitting the data over
+ * several lists.
+ * <p>
+ * Iterators, spliterators and streams work on a {@link #snapshot()}, they never throw
+ * {@link java.util.ConcurrentModificationException} and do not support modification. The snapshot is reused until the
+ * next write, so readers that iterate repeatedly without writes in between do not block writers and do not make the
+ * next write copy node headers again. Single pass reads like equals, hashCode and toString hold the read lock instead,
+ * so they do not leave a snapshot behind that the next write would have to copy headers for.
+ */
+public final class ReadMostlyUnrolledLinkedList<T> extends AbstractList<T>{
+	
+	private final UnrolledLinkedList<T> list;
+	private final StampedLock           lock = new StampedLock();
+	
+	/**
+	 * Last snapshot and the write stamp of the list when it was taken. Only written under the write lock.
+	 */
+	private UnrolledLinkedList<T> cachedSnapshot;
+	private int                   cachedStamp;
+	
+	public ReadMostlyUnrolledLinkedList(){
+		this(16);
+	}
+	public ReadMostlyUnrolledLinkedList(int rollSize){
+		this(rollSize, false);
+	}
+	public ReadMostlyUnrolledLinkedList(int rollSize, boolean indexed){
+		list = new UnrolledLinkedList<>(rollSize, indexed);
+	}
+	
+	@Override
+	public T get(int index){
+		var stamp = lock.tryOptimisticRead();
+		if(stamp != 0){
+			try{
+				var val = list.getDetached(index);
+				if(lock.validate(stamp)) return val;
+			}catch(RuntimeException e){
+				//A write in progress can leave the nodes in any state, only trust the exception if nothing changed
+				if(lock.validate(stamp)) throw e;
+			}
+		}
+		stamp = lock.readLock();
+		try{
+			return list.getDetached(index);
+		}finally{
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	@Override
+	public int size(){
+		var stamp = lock.tryOptimisticRead();
+		var size  = list.size();
+		if(lock.validate(stamp)) return size;
+		stamp = lock.readLock();
+		try{
+			return list.size();
+		}finally{
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	@Override
+	public boolean isEmpty(){
+		return size() == 0;
+	}
+	
+	@Override
+	public T set(int index, T element){
+		var stamp = lock.writeLock();
+		try{
+			return list.set(index, element);
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	@Override
+	public boolean add(T t){
+		var stamp = lock.writeLock();
+		try{
+			return list.add(t);
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	@Override
+	public void add(int index, T element){
+		var stamp = lock.writeLock();
+		try{
+			list.add(index, element);
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	@Override
+	public T remove(int index){
+		var stamp = lock.writeLock();
+		try{
+			return list.remove(index);
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	@Override
+	public boolean remove(Object o){
+		var stamp = lock.writeLock();
+		try{
+			return list.remove(o);
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	@Override
+	public boolean addAll(Collection<? extends T> c){
+		var arr   = Arrays.asList(c.toArray());
+		var stamp = lock.writeLock();
+		try{
+			//noinspection unchecked
+			return list.addAll((Collection<? extends T>)arr);
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	@Override
+	public boolean addAll(int index, Collection<? extends T> c){
+		var arr   = Arrays.asList(c.toArray());
+		var stamp = lock.writeLock();
+		try{
+			//noinspection unchecked
+			return list.addAll(index, (Collection<? extends T>)arr);
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	@Override
+	protected void removeRange(int fromIndex, int toIndex){
+		var stamp = lock.writeLock();
+		try{
+			list.removeRange(fromIndex, toIndex);
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	public void truncate(int newSize){
+		var stamp = lock.writeLock();
+		try{
+			list.truncate(newSize);
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	public void dropFirst(int n){
+		var stamp = lock.writeLock();
+		try{
+			list.dropFirst(n);
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	@Override
+	public void clear(){
+		var stamp = lock.writeLock();
+		try{
+			list.clear();
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	@Override
+	public void sort(Comparator<? super T> c){
+		var stamp = lock.writeLock();
+		try{
+			list.sort(c);
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	@Override
+	public void replaceAll(UnaryOperator<T> operator){
+		var stamp = lock.writeLock();
+		try{
+			list.replaceAll(operator);
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * See {@link UnrolledLinkedList#setArrayPoolSize(int)}
+	 */
+	public void setArrayPoolSize(int maxArrays){
+		var stamp = lock.writeLock();
+		try{
+			list.setArrayPoolSize(maxArrays);
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * See {@link UnrolledLinkedList#compact(double)}
+	 */
+	public void compact(double targetFill){
+		var stamp = lock.writeLock();
+		try{
+			list.compact(targetFill);
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * See {@link UnrolledLinkedList#trimToSize()}
+	 */
+	public void trimToSize(){
+		var stamp = lock.writeLock();
+		try{
+			list.trimToSize();
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * See {@link UnrolledLinkedList#setIncrementalCompaction(double)}
+	 */
+	public void setIncrementalCompaction(double targetFill){
+		var stamp = lock.writeLock();
+		try{
+			list.setIncrementalCompaction(targetFill);
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * See {@link UnrolledLinkedList#snapshot()}. The snapshot can be read without any locking. The same snapshot is
+	 * returned until the list is written to, only the first call after a write takes the write lock.
+	 */
+	public UnrolledLinkedList<T> snapshot(){
+		var stamp = lock.tryOptimisticRead();
+		if(stamp != 0){
+			var snap  = cachedSnapshot;
+			var fresh = snap != null && cachedStamp == list.writeStamp();
+			if(lock.validate(stamp) && fresh) return snap;
+		}
+		stamp = lock.writeLock();
+		try{
+			var snap = cachedSnapshot;
+			if(snap == null || cachedStamp != list.writeStamp()){
+				snap = list.snapshot();
+				cachedSnapshot = snap;
+				cachedStamp = list.writeStamp();
+			}
+			return snap;
+		}finally{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * See {@link UnrolledLinkedList#writeTo}. Writes a snapshot, so other threads are not blocked while the channel is
+	 * written to.
+	 */
+	public void writeTo(WritableByteChannel out, ElementCodec<? super T> codec) throws IOException{
+		snapshot().writeTo(out, codec);
+	}
+	
+	/**
+	 * See {@link UnrolledLinkedList#readFrom}. The stream is read in to a separate list first, so other threads are
+	 * only blocked while it is appended.
+	 */
+	public void readFrom(ReadableByteChannel in, ElementCodec<? extends T> codec) throws IOException{
+		var tmp = new UnrolledLinkedList<T>();
+		tmp.readFrom(in, codec);
+		addAll(tmp);
+	}
+	
+	/**
+	 * See {@link UnrolledLinkedList#stats()}
+	 */
+	public UnrolledLinkedList.Stats stats(){
+		var stamp = lock.readLock();
+		try{
+			return list.stats();
+		}finally{
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	@Override
+	public int indexOf(Object o){
+		var stamp = lock.readLock();
+		try{
+			return list.indexOf(o);
+		}finally{
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	@Override
+	public int lastIndexOf(Object o){
+		var stamp = lock.readLock();
+		try{
+			return list.lastIndexOf(o);
+		}finally{
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	@Override
+	public boolean contains(Object o){
+		return indexOf(o) != -1;
+	}
+	
+	@Override
+	public void forEach(Consumer<? super T> action){
+		Objects.requireNonNull(action);
+		var stamp = lock.readLock();
+		try{
+			list.forEach(action);
+		}finally{
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	@Override
+	public Object[] toArray(){
+		var stamp = lock.readLock();
+		try{
+			return list.toArray();
+		}finally{
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	@Override
+	public <T1> T1[] toArray(T1[] a){
+		var stamp = lock.readLock();
+		try{
+			return list.toArray(a);
+		}finally{
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	/**
+	 * A collection of the same type is compared through its snapshot. Locking both lists could deadlock with a call
+	 * that compares them the other way around.
+	 */
+	@Override
+	public boolean equals(Object o){
+		if(o == this) return true;
+		if(o instanceof ReadMostlyUnrolledLinkedList<?> other) o = other.snapshot();
+		var stamp = lock.readLock();
+		try{
+			return list.equals(o);
+		}finally{
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	@Override
+	public int hashCode(){
+		var stamp = lock.readLock();
+		try{
+			return list.hashCode();
+		}finally{
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	@Override
+	public boolean containsAll(Collection<?> c){
+		var arr   = c.toArray();
+		var stamp = lock.readLock();
+		try{
+			for(var e : arr){
+				if(list.indexOf(e) == -1) return false;
+			}
+			return true;
+		}finally{
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	@Override
+	public Iterator<T> iterator(){ return snapshot().iterator(); }
+	@Override
+	public ListIterator<T> listIterator(int index){ return snapshot().listIterator(index); }
+	@Override
+	public Spliterator<T> spliterator(){ return snapshot().spliterator(); }
+	
+	@Override
+	public String toString(){
+		var stamp = lock.readLock();
+		try{
+			return list.toString();
+		}finally{
+			lock.unlockRead(stamp);
+		}
+	}
+}
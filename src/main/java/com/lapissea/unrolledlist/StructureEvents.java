@@ -0,0 +1,113 @@
+package com.lapissea.unrolledlist;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder events of {@link UnrolledLinkedList}. All of them are disabled by default and can be turned on in a
+ * recording settings file, for example {@code <event name="com.lapissea.unrolledlist.NodeSplit"><setting
+ * name="enabled">true</setting></event>}. When an event is off its object is never filled and escape analysis drops it.
+ */
+final class StructureEvents{
+	
+	private static final String CATEGORY = "Unrolled Linked List";
+	
+	/**
+	 * Walks passing over at least this many nodes or index levels emit a {@link SlowWalk}. Set with the system property
+	 * {@code unrolledlist.slowWalkHops}.
+	 */
+	static final int SLOW_WALK_HOPS = Integer.getInteger("unrolledlist.slowWalkHops", 32);
+	
+	private StructureEvents(){ }
+	
+	@Name("com.lapissea.unrolledlist.Sort")
+	@Label("Sort")
+	@Description("Sort of the whole list, nodes are sorted on their own and sorted runs are then merged")
+	@Category(CATEGORY)
+	@Enabled(false)
+	static final class Sort extends Event{
+		@Label("Size")
+		int     size;
+		@Label("Parallel")
+		boolean parallel;
+		@Label("Chunks")
+		@Description("Runs of already sorted nodes that went in to the merge phase")
+		int     chunks;
+		@Label("Merges")
+		int     merges;
+		@Label("Merge Levels")
+		int     levels;
+		@Label("Merge Time")
+		@Timespan
+		long    mergeTime;
+	}
+	
+	@Name("com.lapissea.unrolledlist.NodeSplit")
+	@Label("Node Split")
+	@Description("A full node moved part of its elements to a following node")
+	@Category(CATEGORY)
+	@Enabled(false)
+	@StackTrace(false)
+	static final class NodeSplit extends Event{
+		@Label("Node Size")
+		int     nodeSize;
+		@Label("Moved")
+		int     moved;
+		@Label("Next Size")
+		int     nextSize;
+		@Label("New Node")
+		boolean newNode;
+	}
+	
+	@Name("com.lapissea.unrolledlist.NodeMerge")
+	@Label("Node Merge")
+	@Description("A node was emptied in to its neighbours and removed")
+	@Category(CATEGORY)
+	@Enabled(false)
+	@StackTrace(false)
+	static final class NodeMerge extends Event{
+		@Label("Moved")
+		int     moved;
+		@Label("Survivor Size")
+		@Description("Size of the node that took the elements, after the merge")
+		int     survivorSize;
+		@Label("Spread")
+		@Description("The elements were split between both neighbours")
+		boolean spread;
+	}
+	
+	@Name("com.lapissea.unrolledlist.NeighbourTransfer")
+	@Label("Neighbour Transfer")
+	@Description("An insert in to a full node pushed elements in to a neighbour instead of splitting")
+	@Category(CATEGORY)
+	@Enabled(false)
+	@StackTrace(false)
+	static final class NeighbourTransfer extends Event{
+		@Label("Moved")
+		int     moved;
+		@Label("To Next")
+		boolean toNext;
+	}
+	
+	@Name("com.lapissea.unrolledlist.SlowWalk")
+	@Label("Slow Walk")
+	@Description("A position lookup passed over more nodes or index levels than unrolledlist.slowWalkHops")
+	@Category(CATEGORY)
+	@Enabled(false)
+	static final class SlowWalk extends Event{
+		@Label("Offset")
+		int     offset;
+		@Label("Hops")
+		int     hops;
+		@Label("List Size")
+		int     size;
+		@Label("Indexed")
+		boolean indexed;
+	}
+}
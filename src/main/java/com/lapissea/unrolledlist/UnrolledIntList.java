@@ -0,0 +1,1038 @@
+// Generated by GeneratePrimitiveLists from UnrolledPrimitiveList.java.template, edit the template instead
+package com.lapissea.unrolledlist;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.StringJoiner;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Primitive int version of {@link UnrolledLinkedList}. Elements are stored directly in the node arrays, so there is no
+ * boxing and no pointer chase per element. The {@link java.util.List} methods are still available but they box.
+ */
+public final class UnrolledIntList extends AbstractList<Integer>{
+	
+	private final class UnrolledIterator implements PrimitiveIterator.OfInt{
+		
+		private Node node, nodeLastRet;
+		private int  pos, lastRet;
+		
+		private UnrolledIterator(){
+			node = head;
+			fixPos();
+		}
+		
+		@Override
+		public boolean hasNext(){
+			return node != null;
+		}
+		
+		@Override
+		public int nextInt(){
+			if(node == null) throw new NoSuchElementException();
+			int val = (nodeLastRet = node).get(lastRet = pos);
+			pos++;
+			fixPos();
+			return val;
+		}
+		
+		private void fixPos(){
+			while(node != null && pos>=node.size){
+				pos -= node.size;
+				node = node.next;
+			}
+		}
+		
+		@Override
+		public void remove(){
+			if(nodeLastRet == null) throw new IllegalStateException();
+			var res = nodeLastRet.remove(lastRet);
+			if(res != null){
+				node = res.newNode;
+				pos = lastRet + res.delta;
+			}else{
+				if(node == nodeLastRet && lastRet<pos) pos--;
+			}
+			fixPos();
+			size--;
+			modCount++;
+			finger = null;
+			
+			nodeLastRet = null;
+		}
+	}
+	
+	private static final class UnrolledSpliterator implements Spliterator.OfInt{
+		
+		private final UnrolledIntList list;
+		
+		private int index; // current index, modified on advance/split
+		private int fence; // -1 until used; then one past last index
+		
+		private UnrolledIntList.Node node;
+		private int                  localIndex;
+		
+		private UnrolledSpliterator(UnrolledIntList list){
+			this.list = list;
+			this.index = 0;
+			this.fence = -1;
+		}
+		
+		/**
+		 * Create new spliterator covering the given range, starting at an already resolved position
+		 */
+		private UnrolledSpliterator(UnrolledSpliterator parent, int origin, int fence){
+			this.list = parent.list;
+			this.index = origin;
+			this.fence = fence;
+			this.node = parent.node;
+			this.localIndex = parent.localIndex;
+		}
+		
+		private int getFence(){ // initialize fence to size on first use
+			int hi;
+			if((hi = fence)<0){
+				hi = fence = list.size();
+				loadNode();
+			}
+			return hi;
+		}
+		
+		/**
+		 * Splits on the node boundary closest to the middle so both halves traverse whole arrays. The prefix takes over
+		 * the current position and this one moves forward to the split point.
+		 */
+		@Override
+		public Spliterator.OfInt trySplit(){
+			int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+			if(lo>=mid) return null; // divide range in half unless too small
+			
+			var n      = node;
+			var nStart = lo - localIndex;
+			while(nStart + n.size<=mid){
+				nStart += n.size;
+				n = n.next;
+			}
+			
+			var nEnd  = nStart + n.size;
+			var split = mid - nStart<=nEnd - mid? nStart : nEnd;
+			if(split<=lo || split>=hi) split = mid;
+			
+			var prefix = new UnrolledSpliterator(this, lo, split);
+			node = n;
+			localIndex = split - nStart;
+			index = split;
+			fixPos();
+			return prefix;
+		}
+		
+		@Override
+		public boolean tryAdvance(IntConsumer action){
+			Objects.requireNonNull(action);
+			int hi = getFence(), i = index;
+			if(i<hi){
+				index = i + 1;
+				action.accept(node.get(localIndex++));
+				fixPos();
+				return true;
+			}
+			return false;
+		}
+		
+		@Override
+		public void forEachRemaining(IntConsumer action){
+			Objects.requireNonNull(action);
+			int hi = getFence();
+			int i  = index;
+			index = hi;
+			while(i<hi){
+				var n     = node;
+				var arr   = n.arr;
+				var from  = n.start + localIndex;
+				var count = Math.min(n.size - localIndex, hi - i);
+				for(int j = from, end = from + count; j<end; j++){
+					action.accept(arr[j]);
+				}
+				i += count;
+				localIndex += count;
+				fixPos();
+			}
+		}
+		
+		@Override
+		public long estimateSize(){
+			return getFence() - index;
+		}
+		
+		@Override
+		public int characteristics(){
+			return Spliterator.ORDERED|Spliterator.SIZED|Spliterator.SUBSIZED;
+		}
+		
+		@Override
+		public long getExactSizeIfKnown(){
+			return estimateSize();
+		}
+		
+		private void fixPos(){
+			while(node != null && localIndex>=node.size){
+				localIndex -= node.size;
+				node = node.next;
+			}
+		}
+		private void loadNode(){
+			var res = list.nodeWalk(index);
+			node = res.node;
+			localIndex = res.localPos;
+			fixPos();
+		}
+	}
+	
+	private record StructureChange(UnrolledIntList.Node newNode, int delta){ }
+	
+	private record NodeResult(UnrolledIntList.Node node, int localPos){
+		private static final NodeResult EMPTY = new NodeResult(null, 0);
+	}
+	
+	/**
+	 * A node and its global start. Published as one immutable object so a reader can never pair a node with the start
+	 * of another one.
+	 */
+	private record Finger(UnrolledIntList.Node node, int start){ }
+	
+	private final class Node{
+		private final int[] arr;
+		private       int   start;
+		private       int   size;
+		
+		private Node next;
+		private Node prev;
+		
+		public Node(int[] arr){
+			this.arr = arr;
+		}
+		
+		private int get(int localPos){
+			Objects.checkIndex(localPos, size);
+			return arr[start + localPos];
+		}
+		private int getLast(){
+			if(size == 0) throw new IndexOutOfBoundsException();
+			return arr[start + size - 1];
+		}
+		
+		private int set(int localPos, int value){
+			var truePos = start + localPos;
+			var old     = arr[truePos];
+			arr[truePos] = value;
+			return old;
+		}
+		
+		private void add(int localPos, int element){
+			var lSize = size;
+			Objects.checkIndex(localPos, lSize + 1);
+			var lStart = start;
+			
+			//Insert and consume start space
+			if(lStart>0 && localPos<size/2){
+				var lStartM1 = lStart - 1;
+				if(localPos>0){
+					System.arraycopy(arr, lStart, arr, lStartM1, localPos);
+				}
+				arr[lStartM1 + localPos] = element;
+				start = lStartM1;
+				size = lSize + 1;
+				return;
+			}
+			
+			if(lSize == arr.length){
+				//Totally full, try pushing in to neighbour (position threshold is biased towards prev to passively pack data)
+				if(localPos<=lSize/2){
+					if(addByPrevTransfer(localPos, element)) return;
+				}
+				if(localPos>=lSize*3/4){
+					if(addByNextTransfer(localPos, element)) return;
+				}
+				//Totally full and expand node space by allocating and splitting data
+				if(expand(localPos)){
+					next.add(localPos - size, element);
+					return;
+				}
+				lSize = size;
+			}
+			
+			var truePos  = lStart + localPos;
+			var trueSize = lStart + lSize;
+			
+			//End space is full but there is space at start, move to 0
+			if(lStart>0 && trueSize>=arr.length){
+				System.arraycopy(arr, lStart, arr, 0, lSize);
+				start = 0;
+				trueSize = lSize;
+				truePos = localPos;
+			}
+			
+			if(trueSize>truePos){
+				System.arraycopy(arr, truePos, arr, truePos + 1, trueSize - truePos);
+			}
+			arr[truePos] = element;
+			size = lSize + 1;
+		}
+		
+		private boolean addByNextTransfer(int localPos, int element){
+			var lNext = next;
+			if(lNext == null || lNext.full()) return false;
+			
+			var lSize     = size;
+			var nextStart = lNext.start;
+			var toMove    = lSize - localPos;
+			
+			if(nextStart<toMove) return false;
+			if(localPos == lSize){
+				lNext.add(0, element);
+				return true;
+			}
+			
+			var trueSize = start + lSize;
+			System.arraycopy(arr, trueSize - toMove, lNext.arr, nextStart - toMove, toMove);
+			arr[localPos] = element;
+			size -= toMove - 1;
+			lNext.start -= toMove;
+			lNext.size += toMove;
+			return true;
+		}
+		
+		private boolean addByPrevTransfer(int localPos, int element){
+			var lPrev = prev;
+			if(lPrev == null) return false;
+			
+			var prevEnd = lPrev.size + lPrev.start;
+			
+			if(prevEnd + localPos>lPrev.arr.length) return false;
+			if(localPos == 0){
+				lPrev.add(lPrev.size, element);
+				return true;
+			}
+			
+			System.arraycopy(arr, 0, lPrev.arr, prevEnd, localPos);
+			var prev = localPos - 1;
+			arr[prev] = element;
+			size -= prev;
+			start += prev;
+			lPrev.size += localPos;
+			return true;
+		}
+		
+		private boolean expand(int localPos){
+			int s;
+			if((s = size) != arr.length) return false;
+			
+			var n = optimalNext();
+			
+			int copyPos   = 0;
+			var available = n.arr.length - (n.start + n.size);
+			
+			var amount = Math.min(s/4, Math.max(1, available - 1));
+			if(n.size>0){
+				var toMove = Math.max(0, amount - n.start);
+				if(toMove>0){
+					System.arraycopy(n.arr, n.start, n.arr, n.start + toMove, n.size);
+				}
+				copyPos = n.start + toMove - amount;
+			}
+			var trueSize = start + s;
+			System.arraycopy(arr, trueSize - amount, n.arr, copyPos, amount);
+			
+			n.start = copyPos;
+			n.size += amount;
+			size = s -= amount;
+			
+			return localPos>s;
+		}
+		
+		private boolean full(){
+			return size>=arr.length*3/4;
+		}
+		private Node optimalNext(){
+			if(next == null || next.full()){
+				insertNext();
+			}
+			return next;
+		}
+		
+		private void insertNext(){
+			var delta1 = new Node(new int[rollSize]);
+			delta1.prev = this;
+			
+			if(next != null){
+				var delta2 = next;
+				delta2.prev = delta1;
+				delta1.next = delta2;
+			}else tail = delta1;
+			next = delta1;
+		}
+		
+		private StructureChange remove(int localPos){
+			var s = size;
+			Objects.checkIndex(localPos, s);
+			int newSize = s - 1;
+			if(localPos<s/2){
+				if(localPos>0){
+					System.arraycopy(arr, start, arr, start + 1, localPos);
+				}
+				start++;
+				size = newSize;
+				if(newSize == 0) start = arr.length/2;
+			}else{
+				if(newSize>localPos){
+					int i = start + localPos;
+					System.arraycopy(arr, i + 1, arr, i, start + newSize - i);
+				}
+				size = newSize;
+			}
+			
+			if(newSize<arr.length/2){
+				if(newSize == 0){
+					removeSelf();
+					if(next == null){
+						if(prev == null) return null;
+						return new StructureChange(prev, prev.size);
+					}
+					return new StructureChange(next, 0);
+				}
+				return defrag();
+			}
+			
+			return null;
+		}
+		
+		private StructureChange defrag(){
+			int siz   = size;
+			var lPrev = prev;
+			var lNext = next;
+			
+			if(lPrev != null){
+				int off;
+				if(siz + (off = lPrev.size + lPrev.start)<=lPrev.arr.length){
+					System.arraycopy(arr, start, lPrev.arr, off, siz);
+					var olSiz = lPrev.size;
+					lPrev.size += siz;
+					removeSelf();
+					return new StructureChange(lPrev, olSiz);
+				}
+			}
+			if(lNext != null){
+				int off;
+				if((off = siz + start) + lNext.size<=arr.length){
+					System.arraycopy(lNext.arr, lNext.start, arr, off, lNext.size);
+					size += lNext.size;
+					lNext.removeSelf();
+					return new StructureChange(this, 0);
+				}
+			}
+			
+			if(lPrev != null && lNext != null){
+				var prevEnd   = lPrev.size + lPrev.start;
+				var nextStart = lNext.start;
+				
+				var prevToAdd = lPrev.arr.length - prevEnd;
+				var nextToAdd = nextStart;
+				
+				var remaining = siz - prevToAdd - nextToAdd;
+				if(remaining>0) return null;
+				if(remaining<0){
+					nextToAdd += remaining;
+				}
+				if(nextToAdd<=0) throw new IllegalStateException();
+				
+				var olSiz = lPrev.size;
+				
+				System.arraycopy(arr, start, lPrev.arr, prevEnd, prevToAdd);
+				lPrev.size += prevToAdd;
+				
+				System.arraycopy(arr, start + prevToAdd, lNext.arr, nextStart - nextToAdd, nextToAdd);
+				lNext.start -= nextToAdd;
+				lNext.size += nextToAdd;
+				
+				removeSelf();
+				return new StructureChange(lPrev, olSiz);
+			}
+			
+			return null;
+		}
+		
+		private void removeSelf(){
+			if(prev != null) prev.next = next;
+			else head = next;
+			if(next != null) next.prev = prev;
+			else tail = prev;
+			size = -1;
+		}
+		
+		@Override
+		public String toString(){
+			var res = new StringJoiner(", ", "{size=" + size + ", start=" + start + "}[", "]");
+			for(int i = 0; i<size; i++){
+				res.add(Integer.toString(get(i)));
+			}
+			return res.toString();
+		}
+	}
+	
+	private       int size;
+	private final int rollSize;
+	
+	private Node head, tail;
+	
+	/**
+	 * Last resolved node. Concurrent get calls on a list that is not being written can race on it safely.
+	 */
+	private Finger finger;
+	
+	/**
+	 * Nodes in list order for {@link #addRemainSorted}, with a Fenwick tree of their sizes so a node's start is found
+	 * in log time. It is valid while dirModCount matches modCount and is rebuilt lazily otherwise.
+	 */
+	private Node[] dirNodes;
+	private int[]  dirSizes, dirTree;
+	private int    dirCount, dirModCount = -1;
+	
+	public UnrolledIntList(){
+		this(32);
+	}
+	public UnrolledIntList(int rollSize){
+		this.rollSize = rollSize;
+	}
+	
+	public int getInt(int index){
+		Objects.checkIndex(index, size);
+		var f = resolve(index);
+		return f.node.get(index - f.start);
+	}
+	
+	public int setInt(int index, int element){
+		Objects.checkIndex(index, size);
+		var f = resolve(index);
+		return f.node.set(index - f.start, element);
+	}
+	
+	public void addInt(int element){
+		if(tail == null) makeFirst();
+		var last = tail;
+		last.add(last.size, element);
+		size++;
+		modCount++;
+	}
+	
+	public void addInt(int index, int element){
+		Objects.checkIndex(index, size + 1);
+		if(tail == null) makeFirst();
+		var f = resolve(index);
+		addAt(f.node, f.start, index - f.start, element);
+	}
+	
+	private void addAt(Node node, int nodeStart, int localPos, int element){
+		var prev      = node.prev;
+		var prevStart = prev == null? 0 : nodeStart - prev.size;
+		
+		node.add(localPos, element);
+		size++;
+		modCount++;
+		refinger(prev, prevStart);
+	}
+	
+	public int removeInt(int index){
+		Objects.checkIndex(index, size);
+		var f         = resolve(index);
+		var node      = f.node;
+		var localPos  = index - f.start;
+		var prev      = node.prev;
+		var prevStart = prev == null? 0 : f.start - prev.size;
+		
+		var old = node.get(localPos);
+		node.remove(localPos);
+		size--;
+		modCount++;
+		refinger(prev, prevStart);
+		return old;
+	}
+	
+	@Override
+	public Integer get(int index){ return getInt(index); }
+	@Override
+	public Integer set(int index, Integer element){ return setInt(index, element); }
+	@Override
+	public boolean add(Integer element){
+		addInt(element);
+		return true;
+	}
+	@Override
+	public void add(int index, Integer element){ addInt(index, element); }
+	@Override
+	public Integer remove(int index){ return removeInt(index); }
+	
+	@Override
+	public boolean contains(Object o){
+		return o instanceof Integer i && indexOf(i.intValue()) != -1;
+	}
+	@Override
+	public int indexOf(Object o){
+		return o instanceof Integer i? indexOf(i.intValue()) : -1;
+	}
+	@Override
+	public int lastIndexOf(Object o){
+		return o instanceof Integer i? lastIndexOf(i.intValue()) : -1;
+	}
+	
+	public boolean contains(int value){
+		return indexOf(value) != -1;
+	}
+	
+	public int indexOf(int value){
+		int pos = 0;
+		for(var node = head; node != null; node = node.next){
+			var s = node.start;
+			var i = ArrayScans.indexOf(node.arr, s, s + node.size, value);
+			if(i != -1) return pos + i - s;
+			pos += node.size;
+		}
+		return -1;
+	}
+	
+	public int lastIndexOf(int value){
+		int end = size;
+		for(var node = tail; node != null; node = node.prev){
+			end -= node.size;
+			var s = node.start;
+			var i = ArrayScans.lastIndexOf(node.arr, s, s + node.size, value);
+			if(i != -1) return end + i - s;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Counts the elements for which {@code element op value} holds. Runs on SIMD kernels when the vector module is
+	 * available.
+	 */
+	public int count(ValueComparison op, int value){
+		Objects.requireNonNull(op);
+		int count = 0;
+		for(var node = head; node != null; node = node.next){
+			count += ArrayScans.count(node.arr, node.start, node.start + node.size, op, value);
+		}
+		return count;
+	}
+	
+	public int count(IntPredicate filter){
+		Objects.requireNonNull(filter);
+		int count = 0;
+		for(var node = head; node != null; node = node.next){
+			var arr = node.arr;
+			for(int i = node.start, j = i + node.size; i<j; i++){
+				if(filter.test(arr[i])) count++;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Sum of all elements. Overflows the same way as {@link IntStream#sum()}.
+	 */
+	public int sum(){
+		int sum = 0;
+		for(var node = head; node != null; node = node.next){
+			sum += ArrayScans.sum(node.arr, node.start, node.start + node.size);
+		}
+		return sum;
+	}
+	
+	public OptionalInt min(){
+		if(size == 0) return OptionalInt.empty();
+		var min = head.get(0);
+		for(var node = head; node != null; node = node.next){
+			if(node.size>0) min = Math.min(min, ArrayScans.min(node.arr, node.start, node.start + node.size));
+		}
+		return OptionalInt.of(min);
+	}
+	
+	public OptionalInt max(){
+		if(size == 0) return OptionalInt.empty();
+		var max = head.get(0);
+		for(var node = head; node != null; node = node.next){
+			if(node.size>0) max = Math.max(max, ArrayScans.max(node.arr, node.start, node.start + node.size));
+		}
+		return OptionalInt.of(max);
+	}
+	
+	@Override
+	public void clear(){
+		size = 0;
+		tail = head = null;
+		finger = null;
+		dirNodes = null;
+		modCount++;
+	}
+	
+	private void makeFirst(){
+		tail = head = new Node(new int[rollSize]);
+	}
+	
+	@Override
+	public int size(){
+		return size;
+	}
+	
+	/**
+	 * Does not read or modify the finger, so it is safe to call from spliterators running in parallel.
+	 */
+	private NodeResult nodeWalk(int offset){
+		if(head == null){
+			return NodeResult.EMPTY;
+		}
+		if(offset>size>>1){
+			return walkBackwards(offset, tail, size);
+		}
+		return walkForwards(offset, head, 0);
+	}
+	
+	private Finger resolve(int offset){
+		var f = finger;
+		if(f != null){
+			var fNode = f.node;
+			var dist  = offset - f.start;
+			if(dist>=0 && dist<fNode.size) return f;
+			
+			var fDist = Math.abs(dist);
+			if(fDist<offset && fDist<size - offset){
+				var res = dist>0? walkForwards(offset, fNode, f.start) : walkBackwards(offset, fNode, f.start + fNode.size);
+				return moveFinger(res, offset);
+			}
+		}
+		return moveFinger(nodeWalk(offset), offset);
+	}
+	
+	private Finger moveFinger(NodeResult res, int offset){
+		var f = new Finger(res.node, offset - res.localPos);
+		finger = f;
+		return f;
+	}
+	
+	private void refinger(Node prev, int prevStart){
+		if(prev != null) finger = new Finger(prev, prevStart);
+		else finger = head == null? null : new Finger(head, 0);
+	}
+	
+	private NodeResult walkForwards(int offset, Node start, int startPos){
+		Node node      = start;
+		int  remaining = offset - startPos;
+		while(remaining>=node.size){
+			var next = node.next;
+			if(next == null) break;
+			remaining -= node.size;
+			node = next;
+		}
+		return new NodeResult(node, remaining);
+	}
+	
+	private NodeResult walkBackwards(int offset, Node start, int startPos){
+		Node node      = start;
+		int  remaining = startPos - offset;
+		while(remaining>node.size){
+			var prev = node.prev;
+			if(prev == null) break;
+			remaining -= node.size;
+			node = prev;
+		}
+		return new NodeResult(node, node.size - remaining);
+	}
+	
+	/**
+	 * A null or natural order comparator uses the primitive {@link #sort()}.
+	 */
+	@Override
+	public void sort(Comparator<? super Integer> c){
+		if(c == null || c == Comparator.naturalOrder()){
+			sort();
+			return;
+		}
+		super.sort(c);
+	}
+	
+	@Override
+	public PrimitiveIterator.OfInt iterator(){ return new UnrolledIterator(); }
+	@Override
+	public Spliterator.OfInt spliterator(){ return new UnrolledSpliterator(this); }
+	
+	public IntStream intStream(){
+		return StreamSupport.intStream(spliterator(), false);
+	}
+	public IntStream parallelIntStream(){
+		return StreamSupport.intStream(spliterator(), true);
+	}
+	
+	public void forEachInt(IntConsumer action){
+		Objects.requireNonNull(action);
+		for(var node = head; node != null; node = node.next){
+			var arr = node.arr;
+			for(int i = node.start, j = i + node.size; i<j; i++){
+				action.accept(arr[i]);
+			}
+		}
+	}
+	
+	@Override
+	public String toString(){
+		var rest = new StringJoiner(" - ", "[", "]");
+		
+		for(var node = head; node != null; node = node.next){
+			var part = new StringJoiner(", ");
+			for(int i = 0; i<node.size; i++){
+				part.add(Integer.toString(node.get(i)));
+			}
+			rest.add(part.toString());
+		}
+		
+		return rest.toString();
+	}
+	
+	public int[] toIntArray(){
+		var r   = new int[size];
+		var pos = 0;
+		for(var node = head; node != null; node = node.next){
+			System.arraycopy(node.arr, node.start, r, pos, node.size);
+			pos += node.size;
+		}
+		return r;
+	}
+	
+	/**
+	 * Sorts the list in ascending order. Nodes are sorted on their own and runs of nodes that are already in order are
+	 * merged pairwise. A merge writes in to full nodes and reuses every node it has read empty, so it only needs a few
+	 * nodes of extra memory and merged nodes end up packed.
+	 */
+	public void sort(){
+		if(head == null) return;
+		finger = null;
+		modCount++;
+		
+		var runHeads = new Node[8];
+		var runSizes = new int[8];
+		int runs     = 0;
+		for(var node = head; node != null; node = node.next){
+			var s = node.start;
+			Arrays.sort(node.arr, s, s + node.size);
+			if(runs>0 && Integer.compare(node.arr[s], node.prev.getLast())>=0){
+				runSizes[runs - 1] += node.size;
+				continue;
+			}
+			if(runs == runHeads.length){
+				runHeads = Arrays.copyOf(runHeads, runs*2);
+				runSizes = Arrays.copyOf(runSizes, runs*2);
+			}
+			runHeads[runs] = node;
+			runSizes[runs] = node.size;
+			runs++;
+		}
+		
+		var spare = new ArrayDeque<Node>();
+		for(int inc = 1; inc<runs; inc *= 2){
+			for(int i = 0; i + inc<runs; i += inc*2){
+				runHeads[i] = mergeRuns(runHeads[i], runSizes[i], runHeads[i + inc], runSizes[i + inc], spare);
+				runSizes[i] += runSizes[i + inc];
+			}
+		}
+	}
+	
+	/**
+	 * Merges two adjacent sorted runs of nodes and links the result in their place. Output nodes are filled completely,
+	 * so the nodes read empty always keep up with the nodes written and are reused through spare.
+	 *
+	 * @return the first node of the merged run
+	 */
+	private Node mergeRuns(Node l, int lRemaining, Node r, int rRemaining, ArrayDeque<Node> spare){
+		var before = l.prev;
+		
+		Node after = null, first = null, out = null;
+		var  lArr  = l.arr;
+		var  rArr  = r.arr;
+		int  lPos  = l.start, lEnd = lPos + l.size;
+		int  rPos  = r.start, rEnd = rPos + r.size;
+		int  outPos = rollSize;
+		
+		while(lRemaining>0 || rRemaining>0){
+			int value;
+			if(rRemaining == 0 || lRemaining>0 && Integer.compare(rArr[rPos], lArr[lPos])>=0){
+				value = lArr[lPos++];
+				lRemaining--;
+				if(lPos == lEnd){
+					var next = l.next;
+					spare.add(l);
+					if(lRemaining>0){
+						l = next;
+						lArr = l.arr;
+						lPos = l.start;
+						lEnd = lPos + l.size;
+					}
+				}
+			}else{
+				value = rArr[rPos++];
+				rRemaining--;
+				if(rPos == rEnd){
+					var next = r.next;
+					spare.add(r);
+					if(rRemaining>0){
+						r = next;
+						rArr = r.arr;
+						rPos = r.start;
+						rEnd = rPos + r.size;
+					}else after = next;
+				}
+			}
+			
+			if(outPos == rollSize){
+				var node = spare.pollFirst();
+				if(node == null) node = new Node(new int[rollSize]);
+				node.start = 0;
+				node.size = rollSize;
+				if(out == null) first = node;
+				else{
+					out.next = node;
+					node.prev = out;
+				}
+				out = node;
+				outPos = 0;
+			}
+			out.arr[outPos++] = value;
+		}
+		out.size = outPos;
+		
+		first.prev = before;
+		if(before == null) head = first;
+		else before.next = first;
+		out.next = after;
+		if(after == null) tail = out;
+		else after.prev = out;
+		return first;
+	}
+	
+	/**
+	 * Inserts the value in to a list that is sorted in ascending order so that it remains sorted.
+	 * The node is found by binary search, repeated calls share a node directory that other changes invalidate.
+	 *
+	 * @return the index the value was inserted at
+	 */
+	public int addRemainSorted(int value){
+		if(isEmpty()){
+			addInt(value);
+			return 0;
+		}
+		var valid = dirNodes != null && dirModCount == modCount;
+		if(Integer.compare(value, head.get(0))<0){
+			var first = head;
+			var next  = first.next;
+			addInt(0, value);
+			if(valid) directoryChanged(0, first, null, next);
+			return 0;
+		}
+		if(Integer.compare(value, tail.getLast())>0){
+			var last = tail;
+			var prev = last.prev;
+			addInt(value);
+			if(valid) directoryChanged(dirCount - 1, last, prev, null);
+			return size - 1;
+		}
+		if(!valid) buildDirectory();
+		
+		//Nodes are ordered so the first one that ends at or after the value contains the insertion point
+		int lo = 0, hi = dirCount - 1;
+		while(lo<hi){
+			var mid = (lo + hi)>>>1;
+			if(Integer.compare(dirNodes[mid].getLast(), value)<0) lo = mid + 1;
+			else hi = mid;
+		}
+		var node    = dirNodes[lo];
+		var prev    = node.prev;
+		var next    = node.next;
+		var nodePos = directoryStart(lo);
+		
+		var found = Arrays.binarySearch(node.arr, node.start, node.start + node.size, value);
+		var local = (found<0? -found - 1 : found) - node.start;
+		
+		addAt(node, nodePos, local, value);
+		directoryChanged(lo, node, prev, next);
+		return nodePos + local;
+	}
+	
+	private void buildDirectory(){
+		int count = 0;
+		for(var node = head; node != null; node = node.next) count++;
+		
+		var capacity = count + count/2 + 1;
+		dirNodes = new Node[capacity];
+		dirSizes = new int[capacity];
+		dirTree = new int[capacity + 1];
+		dirCount = count;
+		
+		int i = 0;
+		for(var node = head; node != null; node = node.next, i++){
+			dirNodes[i] = node;
+			dirSizes[i] = dirTree[i + 1] = node.size;
+		}
+		for(int t = 1; t<=count; t++){
+			var parent = t + (t & -t);
+			if(parent<=count) dirTree[parent] += dirTree[t];
+		}
+		dirModCount = modCount;
+	}
+	
+	/**
+	 * @return the sum of the sizes of the nodes before index
+	 */
+	private int directoryStart(int index){
+		int sum = 0;
+		for(int t = index; t>0; t -= t & -t) sum += dirTree[t];
+		return sum;
+	}
+	
+	/**
+	 * Updates the directory after addRemainSorted inserted in to the node at index. An insert only moves elements in to
+	 * the neighbouring nodes, so only their sizes can change. A new node is only added in place when it is the tail,
+	 * anywhere else the directory is left stale and rebuilt by the next call.
+	 */
+	private void directoryChanged(int index, Node node, Node prev, Node next){
+		if(node.prev != prev) return;
+		var appended = node.next != next;
+		if(appended && (next != null || node.next != tail)) return;
+		
+		for(int i = Math.max(0, index - 1), end = Math.min(dirCount, index + 2); i<end; i++){
+			var delta = dirNodes[i].size - dirSizes[i];
+			if(delta == 0) continue;
+			dirSizes[i] += delta;
+			for(int t = i + 1; t<=dirCount; t += t & -t) dirTree[t] += delta;
+		}
+		if(appended){
+			if(dirCount == dirNodes.length){
+				var capacity = dirCount*2;
+				dirNodes = Arrays.copyOf(dirNodes, capacity);
+				dirSizes = Arrays.copyOf(dirSizes, capacity);
+				dirTree = Arrays.copyOf(dirTree, capacity + 1);
+			}
+			var i = dirCount++;
+			var t = i + 1;
+			dirNodes[i] = tail;
+			dirSizes[i] = tail.size;
+			dirTree[t] = tail.size + directoryStart(i) - directoryStart(t - (t & -t));
+		}
+		dirModCount = modCount;
+	}
+}
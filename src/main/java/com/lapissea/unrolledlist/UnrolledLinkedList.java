@@ -1,20 +1,31 @@
 package com.lapissea.unrolledlist;
 
+import java.io.EOFException;
+import java.io.IOException;
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.AbstractList;
 import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Spliterator;
 import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
 
-public final class UnrolledLinkedList<T> extends AbstractList<T>{
+public final class UnrolledLinkedList<T> extends AbstractList<T> implements ListDeque<T>{
 	
 	private record NodeForward<T>(UnrolledLinkedList<T>.Node start) implements Iterable<UnrolledLinkedList<T>.Node>{
 		@Override
@@ -39,10 +50,16 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 		
 		protected Node node, nodeLastRet;
 		protected int pos, lastRet;
+		protected int gen = headerGen;
 		
 		public UnrolledIterator(int start){
 			toGlobalPos(start);
 		}
+		protected UnrolledIterator(Node node, int pos){
+			this.node = node;
+			this.pos = pos;
+			fixPos();
+		}
 		
 		protected void toGlobalPos(int start){
 			var res = nodeWalk(start);
@@ -70,9 +87,15 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 			}
 		}
 		
+		protected void checkWrite(){
+			if(gen != headerGen) throw new ConcurrentModificationException("A snapshot was taken after this iterator was created");
+			prepareWrite(this);
+		}
+		
 		@Override
 		public void remove(){
 			if(nodeLastRet == null) throw new IllegalStateException();
+			checkWrite();
 			var res = nodeLastRet.remove(lastRet);
 			if(res != null){
 				node = res.newNode;
@@ -82,6 +105,7 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 			}
 			fixPos();
 			size--;
+			finger = null;
 			
 			nodeLastRet = null;
 		}
@@ -94,9 +118,13 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 			super(index);
 			globalPos = index;
 		}
+		private UnrolledListIterator(int index, Node node, int pos){
+			super(node, pos);
+			globalPos = index;
+		}
 		
 		public boolean hasPrevious(){
-			return pos>0 || (node != null && node.prev != null);
+			return globalPos>0;
 		}
 		
 		@Override
@@ -107,6 +135,8 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 		}
 		@Override
 		public void remove(){
+			if(nodeLastRet == null) throw new IllegalStateException();
+			checkWrite();
 			if(node == nodeLastRet){
 				globalPos += lastRet - pos;
 			}else{
@@ -124,6 +154,11 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 		public T previous(){
 			if(!hasPrevious()) throw new NoSuchElementException();
 			globalPos--;
+			if(node == null){
+				//Past the end, step back on to the tail
+				node = tail;
+				pos = node.size;
+			}
 			int i = pos - 1;
 			if(i == -1){
 				var prev = node.prev;
@@ -143,13 +178,21 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 		
 		public void set(T e){
 			if(nodeLastRet == null) throw new IllegalStateException();
+			checkWrite();
 			nodeLastRet.set(lastRet, e);
 		}
 		
 		public void add(T e){
+			checkWrite();
+			if(node == null){
+				if(tail == null) makeFirst();
+				node = tail;
+				pos = node.size;
+			}
 			int i = pos;
 			node.add(i, e);
 			size++;
+			finger = null;
 			nodeLastRet = null;
 			pos = i + 1;
 			toGlobalPos(++globalPos);
@@ -161,7 +204,9 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 			var nodePos = globalPos - pos;
 			
 			NodeResult<T> res;
-			if(gPos - globalPos<0){
+			if(indexed && Math.abs(gPos - globalPos)>rollSize*8){
+				res = indexWalk(gPos);
+			}else if(gPos - globalPos<0){
 				var dist = nodePos - gPos;
 				if(dist>gPos){
 					res = walkForwards(gPos, head, 0);
@@ -205,13 +250,18 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 		}
 		
 		/**
-		 * Create new spliterator covering the given  range
+		 * Create new spliterator covering the given range, starting at an already resolved position
 		 */
 		private UnrolledSpliterator(UnrolledSpliterator<E> parent, int origin, int fence){
-			this.list = parent.list;
+			this(parent.list, origin, fence, parent.node, parent.localIndex);
+		}
+		private UnrolledSpliterator(UnrolledLinkedList<E> list, int origin, int fence, UnrolledLinkedList<E>.Node node, int localIndex){
+			this.list = list;
 			this.index = origin;
 			this.fence = fence;
-			loadNode();
+			this.node = node;
+			this.localIndex = localIndex;
+			fixPos();
 		}
 		
 		private int getFence(){ // initialize fence to size on first use
@@ -223,11 +273,40 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 			return hi;
 		}
 		
+		/**
+		 * Splits on the node boundary closest to the middle so both halves traverse whole arrays. The prefix takes over
+		 * the current position and this one moves forward to the split point.
+		 */
 		@Override
 		public Spliterator<E> trySplit(){
 			int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
-			return (lo>=mid)? null : // divide range in half unless too small
-			       new UnrolledSpliterator<>(this, lo, index = mid);
+			if(lo>=mid) return null; // divide range in half unless too small
+			
+			UnrolledLinkedList<E>.Node n;
+			int                        nStart;
+			if(list.indexed){
+				var res = list.nodeWalk(mid);
+				n = res.node;
+				nStart = mid - res.localPos;
+			}else{
+				n = node;
+				nStart = lo - localIndex;
+				while(nStart + n.size<=mid){
+					nStart += n.size;
+					n = n.next;
+				}
+			}
+			
+			var nEnd  = nStart + n.size;
+			var split = mid - nStart<=nEnd - mid? nStart : nEnd;
+			if(split<=lo || split>=hi) split = mid;
+			
+			var prefix = new UnrolledSpliterator<>(this, lo, split);
+			node = n;
+			localIndex = split - nStart;
+			index = split;
+			fixPos();
+			return prefix;
 		}
 		
 		@Override
@@ -249,8 +328,17 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 			int hi = getFence();
 			int i  = index;
 			index = hi;
-			for(; i<hi; i++){
-				action.accept(node.get(localIndex++));
+			while(i<hi){
+				var n     = node;
+				var arr   = n.arr;
+				var from  = n.start + localIndex;
+				var count = Math.min(n.size - localIndex, hi - i);
+				for(int j = from, end = from + count; j<end; j++){
+					//noinspection unchecked
+					action.accept((E)arr[j]);
+				}
+				i += count;
+				localIndex += count;
 				fixPos();
 			}
 		}
@@ -272,14 +360,210 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 		
 		private void fixPos(){
 			while(node != null && localIndex>=node.size){
+				localIndex -= node.size;
 				node = node.next;
-				localIndex = 0;
 			}
 		}
 		private void loadNode(){
 			var res = list.nodeWalk(index);
 			node = res.node;
 			localIndex = res.localPos;
+			fixPos();
+		}
+	}
+	
+	/**
+	 * View of the range [offset, offset + size) of the list. The first node of the range is resolved once and kept until
+	 * the list is written to, element access and iteration walk from there instead of from the list ends. Like any
+	 * {@link AbstractList#subList} view, it is undefined after the list is structurally modified through anything else
+	 * than the view.
+	 */
+	private final class SubList extends AbstractList<T>{
+		
+		private final SubList parent;
+		private final int     offset;
+		private       int     size;
+		
+		private NodeResult<T> start;
+		private int           startStamp;
+		
+		private SubList(SubList parent, int offset, int size){
+			this.parent = parent;
+			this.offset = offset;
+			this.size = size;
+		}
+		
+		/**
+		 * Node that contains the first element of the view and the local position of it. Snapshots never change so they
+		 * resolve it only once.
+		 */
+		private NodeResult<T> start(){
+			var s = start;
+			if(s == null || (!frozen && startStamp != writeStamp)){
+				if(frozen) s = nodeWalk(offset);
+				else{
+					var f = resolve(offset);
+					s = new NodeResult<>(f.node, offset - f.start);
+				}
+				start = s;
+				startStamp = writeStamp;
+			}
+			return s;
+		}
+		
+		private void sizeChanged(int delta){
+			for(var s = this; s != null; s = s.parent){
+				s.size += delta;
+			}
+		}
+		
+		@Override
+		public T get(int index){
+			Objects.checkIndex(index, size);
+			var s   = start();
+			var abs = offset + index;
+			if(frozen){
+				var res = walkForwards(abs, s.node, offset - s.localPos);
+				return res.node.get(res.localPos);
+			}
+			var f = resolveFrom(s.node, offset - s.localPos, abs);
+			return f.node.get(abs - f.start);
+		}
+		
+		@Override
+		public int size(){
+			return size;
+		}
+		
+		@Override
+		public T set(int index, T element){
+			Objects.checkIndex(index, size);
+			//Setting does not move any elements, the start stays valid unless the nodes get unshared
+			var fresh = start != null && startStamp == writeStamp && !headersShared;
+			var old   = UnrolledLinkedList.this.set(offset + index, element);
+			if(fresh) startStamp = writeStamp;
+			return old;
+		}
+		
+		@Override
+		public void add(int index, T element){
+			Objects.checkIndex(index, size + 1);
+			UnrolledLinkedList.this.add(offset + index, element);
+			sizeChanged(1);
+		}
+		
+		@Override
+		public T remove(int index){
+			Objects.checkIndex(index, size);
+			var old = UnrolledLinkedList.this.remove(offset + index);
+			sizeChanged(-1);
+			return old;
+		}
+		
+		@Override
+		public boolean addAll(Collection<? extends T> c){
+			return addAll(size, c);
+		}
+		
+		@Override
+		public boolean addAll(int index, Collection<? extends T> c){
+			Objects.checkIndex(index, size + 1);
+			var before = UnrolledLinkedList.this.size;
+			UnrolledLinkedList.this.addAll(offset + index, c);
+			var delta = UnrolledLinkedList.this.size - before;
+			sizeChanged(delta);
+			return delta != 0;
+		}
+		
+		@Override
+		protected void removeRange(int fromIndex, int toIndex){
+			Objects.checkFromToIndex(fromIndex, toIndex, size);
+			if(fromIndex == toIndex) return;
+			UnrolledLinkedList.this.removeRange(offset + fromIndex, offset + toIndex);
+			sizeChanged(fromIndex - toIndex);
+		}
+		
+		@Override
+		public List<T> subList(int fromIndex, int toIndex){
+			Objects.checkFromToIndex(fromIndex, toIndex, size);
+			return new SubList(this, offset + fromIndex, toIndex - fromIndex);
+		}
+		
+		@Override
+		public Iterator<T> iterator(){ return listIterator(0); }
+		@Override
+		public ListIterator<T> listIterator(int index){
+			Objects.checkIndex(index, size + 1);
+			var abs = offset + index;
+			var s   = start();
+			if(s.node == null) return new SubListIterator(this, new UnrolledListIterator(abs));
+			var res = walkForwards(abs, s.node, offset - s.localPos);
+			return new SubListIterator(this, new UnrolledListIterator(abs, res.node, res.localPos));
+		}
+		@Override
+		public Spliterator<T> spliterator(){
+			var s = start();
+			return new UnrolledSpliterator<>(UnrolledLinkedList.this, offset, offset + size, s.node, s.localPos);
+		}
+		
+		@Override
+		public void forEach(Consumer<? super T> action){
+			spliterator().forEachRemaining(action);
+		}
+	}
+	
+	/**
+	 * Bounds a list iterator to the range of a sub list and keeps its size up to date
+	 */
+	private final class SubListIterator implements ListIterator<T>{
+		
+		private final SubList              list;
+		private final UnrolledListIterator iter;
+		
+		private SubListIterator(SubList list, UnrolledListIterator iter){
+			this.list = list;
+			this.iter = iter;
+		}
+		
+		@Override
+		public boolean hasNext(){
+			return iter.nextIndex()<list.offset + list.size;
+		}
+		@Override
+		public T next(){
+			if(!hasNext()) throw new NoSuchElementException();
+			return iter.next();
+		}
+		@Override
+		public boolean hasPrevious(){
+			return iter.previousIndex()>=list.offset;
+		}
+		@Override
+		public T previous(){
+			if(!hasPrevious()) throw new NoSuchElementException();
+			return iter.previous();
+		}
+		@Override
+		public int nextIndex(){
+			return iter.nextIndex() - list.offset;
+		}
+		@Override
+		public int previousIndex(){
+			return iter.previousIndex() - list.offset;
+		}
+		@Override
+		public void remove(){
+			iter.remove();
+			list.sizeChanged(-1);
+		}
+		@Override
+		public void set(T t){
+			iter.set(t);
+		}
+		@Override
+		public void add(T t){
+			iter.add(t);
+			list.sizeChanged(1);
 		}
 	}
 	
@@ -289,10 +573,91 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 		private static final NodeResult<?> EMPTY = new NodeResult<>(null, 0);
 	}
 	
-	private final class Node{
-		private final Object[] arr;
-		private       int      start;
-		private       int      size;
+	/**
+	 * A node and its global start. Published as one immutable object so a reader can never pair a node with the start
+	 * of another one.
+	 */
+	private record Finger<T>(UnrolledLinkedList<T>.Node node, int start){ }
+	
+	/**
+	 * Layout of a list at the time {@link #stats()} was called. The event counters are totals over the life of the list
+	 * and stay 0 unless the system property {@code unrolledlist.stats} is true.
+	 *
+	 * @param fillHistogram      node count per tenth of node fill, full nodes are in the last bucket
+	 * @param wastedSlots        allocated node slots that do not hold an element
+	 * @param estimatedHeapBytes nodes, node arrays, index and array pool assuming compressed oops. Elements are not
+	 *                           included and arrays shared with a snapshot are counted in full.
+	 * @param walks              node chain and index walks done to resolve a position
+	 * @param walkHops           nodes or index levels passed over by those walks
+	 */
+	public record Stats(
+		int size, int nodeCount, long capacity, double averageFill, int[] fillHistogram, long wastedSlots, long estimatedHeapBytes,
+		long expands, long defrags, long transfers, long walks, long walkHops
+	){
+		public double averageWalkHops(){
+			return walks == 0? 0 : walkHops/(double)walks;
+		}
+		@Override
+		public String toString(){
+			return "Stats{size=" + size + ", nodeCount=" + nodeCount + ", capacity=" + capacity +
+			       ", averageFill=" + averageFill + ", fillHistogram=" + Arrays.toString(fillHistogram) +
+			       ", wastedSlots=" + wastedSlots + ", estimatedHeapBytes=" + estimatedHeapBytes +
+			       ", expands=" + expands + ", defrags=" + defrags + ", transfers=" + transfers +
+			       ", walks=" + walks + ", averageWalkHops=" + averageWalkHops() + "}";
+		}
+	}
+	
+	/**
+	 * Element of the counted node index. Leaves are the {@link Node}s themselves, in list order, and every branch holds the
+	 * element count and node count of its subtree. This makes position lookups O(log n) instead of walking the node chain.
+	 */
+	private abstract static class IndexEntry{
+		IndexBranch parent;
+		
+		abstract int count();
+		abstract int leaves();
+	}
+	
+	private static final class IndexBranch extends IndexEntry{
+		private IndexEntry left, right;
+		private int count, leaves;
+		
+		private IndexBranch(IndexEntry left, IndexEntry right){
+			this.left = left;
+			this.right = right;
+			left.parent = this;
+			right.parent = this;
+			count = left.count() + right.count();
+			leaves = left.leaves() + right.leaves();
+		}
+		
+		@Override
+		int count(){ return count; }
+		@Override
+		int leaves(){ return leaves; }
+		
+		private void replace(IndexEntry old, IndexEntry val){
+			if(left == old) left = val;
+			else right = val;
+			val.parent = this;
+		}
+		
+		/**
+		 * Weight balance criterion. A subtree is rebuilt when one side holds more than 3/4 of its nodes.
+		 */
+		private boolean unbalanced(){
+			return Math.max(left.leaves(), right.leaves())*4>leaves*3;
+		}
+	}
+	
+	private final class Node extends IndexEntry{
+		private Object[] arr;
+		private int      start;
+		private int      size;
+		/**
+		 * The array is also used by a snapshot and needs to be copied before writing to it
+		 */
+		private boolean  shared;
 		
 		private Node next;
 		private Node prev;
@@ -301,6 +666,35 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 			this.arr = arr;
 		}
 		
+		@Override
+		int count(){ return size; }
+		@Override
+		int leaves(){ return 1; }
+		
+		/**
+		 * Needs to be called before writing to the array
+		 */
+		private void own(){
+			if(shared){
+				arr = arr.clone();
+				shared = false;
+			}
+		}
+		
+		/**
+		 * All size changes of a linked node need to go through here so that the index counts stay correct.
+		 */
+		private void setSize(int newSize){
+			var p = parent;
+			if(p != null){
+				var delta = newSize - size;
+				do{
+					p.count += delta;
+				}while((p = p.parent) != null);
+			}
+			size = newSize;
+		}
+		
 		@SuppressWarnings("unchecked")
 		private T get(int localPos){
 			Objects.checkIndex(localPos, size);
@@ -314,6 +708,7 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 		
 		@SuppressWarnings("unchecked")
 		private T set(int localPos, T value){
+			own();
 			var truePos = start + localPos;
 			var old     = (T)arr[truePos];
 			arr[truePos] = value;
@@ -323,6 +718,7 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 		private void add(int localPos, T element){
 			var lSize = size;
 			Objects.checkIndex(localPos, lSize + 1);
+			own();
 			var lStart = start;
 			
 			//Insert and consume start space
@@ -333,11 +729,11 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 				}
 				arr[lStartM1 + localPos] = element;
 				start = lStartM1;
-				size = lSize + 1;
+				setSize(lSize + 1);
 				return;
 			}
 			
-			if(lSize == arr.length){
+			if(lSize == arr.length && !tryGrow()){
 				//Totally full, try pushing in to neighbour (position threshold is biased towards prev to passively pack data)
 				if(localPos<=lSize/2){
 					if(addByPrevTransfer(localPos, element)) return;
@@ -371,7 +767,25 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 //				System.arraycopy(arr, truePos, arr, truePos + 1, trueSize - truePos);
 			}
 			arr[truePos] = element;
-			size = lSize + 1;
+			setSize(lSize + 1);
+		}
+		
+		/**
+		 * Front inserts fill the free space before the elements. When there is none left the elements are moved to the
+		 * back of the array once, so a run of front inserts does not shift the node on every call. The node can not be full.
+		 */
+		private void addFirst(T element){
+			own();
+			var s = start;
+			if(s == 0){
+				var sz = size;
+				s = arr.length - sz;
+				System.arraycopy(arr, 0, arr, s, sz);
+				Arrays.fill(arr, 0, Math.min(s, sz), null);
+			}
+			arr[--s] = element;
+			start = s;
+			setSize(size + 1);
 		}
 		
 		private boolean addByNextTransfer(int localPos, T element){
@@ -385,16 +799,19 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 			if(nextStart<toMove) return false;
 			if(localPos == lSize){
 				lNext.add(0, element);
+				transferred(1, true);
 				return true;
 			}
 			
 			var trueSize = start + lSize;
+			lNext.own();
 			System.arraycopy(arr, trueSize - toMove, lNext.arr, nextStart - toMove, toMove);
 			arr[localPos] = element;
 			zeroRange(localPos + 1, trueSize);
-			size -= toMove - 1;
+			setSize(size - (toMove - 1));
 			lNext.start -= toMove;
-			lNext.size += toMove;
+			lNext.setSize(lNext.size + toMove);
+			transferred(toMove, true);
 			return true;
 		}
 		
@@ -407,16 +824,19 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 			if(prevEnd + localPos>lPrev.arr.length) return false;
 			if(localPos == 0){
 				lPrev.add(lPrev.size, element);
+				transferred(1, false);
 				return true;
 			}
 			
+			lPrev.own();
 			System.arraycopy(arr, 0, lPrev.arr, prevEnd, localPos);
 			var prev = localPos - 1;
 			arr[prev] = element;
 			zeroRange(0, prev);
-			size -= prev;
+			setSize(size - prev);
 			start += prev;
-			lPrev.size += localPos;
+			lPrev.setSize(lPrev.size + localPos);
+			transferred(localPos, false);
 			return true;
 		}
 		
@@ -428,7 +848,11 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 			int s;
 			if((s = size) != arr.length) return false;
 			
+			var oldNext = next;
+			//A neighbour from when the list was smaller is grown instead of adding another node next to it
+			if(adaptive && oldNext != null) oldNext.growTo(targetCapacity());
 			var n = optimalNext();
+			n.own();
 			
 			int copyPos   = 0;
 			var available = n.arr.length - (n.start + n.size);
@@ -446,12 +870,46 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 			zeroRange(trueSize - amount, trueSize);
 			
 			n.start = copyPos;
-			n.size += amount;
-			size = s -= amount;
+			n.setSize(n.size + amount);
+			setSize(s -= amount);
+			split(s + amount, amount, n.size, n != oldNext);
 			
 			return localPos>s;
 		}
 		
+		/**
+		 * Adaptive lists grow a full node to the current capacity instead of splitting it
+		 */
+		private boolean tryGrow(){
+			return adaptive && growTo(targetCapacity());
+		}
+		
+		/**
+		 * Moves the elements to a new array of cap slots if that is larger, keeping their position
+		 */
+		private boolean growTo(int cap){
+			if(cap<=arr.length) return false;
+			var newArr = new Object[cap];
+			System.arraycopy(arr, start, newArr, start, size);
+			arr = newArr;
+			shared = false;
+			return true;
+		}
+		
+		/**
+		 * Adaptive lists shrink a draining node that is much larger than the current capacity
+		 */
+		private void tryShrink(){
+			if(!adaptive) return;
+			var cap = targetCapacity();
+			if(arr.length<=cap*2) return;
+			var newArr = new Object[Math.max(cap, size*2)];
+			System.arraycopy(arr, start, newArr, 0, size);
+			arr = newArr;
+			start = 0;
+			shared = false;
+		}
+		
 		private boolean full(){
 			return size>=arr.length*3/4;
 		}
@@ -463,7 +921,7 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 		}
 		
 		private void insertNext(){
-			var delta1 = new Node(new Object[rollSize]);
+			var delta1 = new Node(newArray());
 			delta1.prev = this;
 			
 			if(next != null){
@@ -472,11 +930,13 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 				delta1.next = delta2;
 			}else tail = delta1;
 			next = delta1;
+			if(indexed) indexInsertAfter(this, delta1);
 		}
 		
 		private StructureChange<T> remove(int localPos){
 			var s = size;
 			Objects.checkIndex(localPos, s);
+			own();
 			int newSize = s - 1;
 			if(localPos<s/2){
 				if(localPos>0){
@@ -484,14 +944,15 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 				}
 				arr[start] = null;
 				start++;
-				size = newSize;
+				setSize(newSize);
 				if(newSize == 0) start = arr.length/2;
 			}else{
 				if(newSize>localPos){
 					int i = start + localPos;
 					System.arraycopy(arr, i + 1, arr, i, start + newSize - i);
 				}
-				arr[start + (size = newSize)] = null;
+				setSize(newSize);
+				arr[start + newSize] = null;
 			}
 			
 			if(newSize<arr.length/2){
@@ -503,6 +964,7 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 					}
 					return new StructureChange<>(next, 0);
 				}
+				tryShrink();
 				return defrag();
 			}
 			
@@ -514,23 +976,34 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 			var lPrev = prev;
 			var lNext = next;
 			
+			if(adaptive){
+				//Neighbours from when the list was smaller are grown so the merge removes a node
+				var cap = targetCapacity();
+				if(lPrev != null && siz + lPrev.size + lPrev.start<=cap) lPrev.growTo(cap);
+				else if(lNext != null && start + siz + lNext.size<=cap) growTo(cap);
+			}
 			
 			if(lPrev != null){
 				int off;
-				if(siz + (off = lPrev.size + lPrev.start)<=arr.length){
+				if(siz + (off = lPrev.size + lPrev.start)<=lPrev.arr.length){
+					lPrev.own();
 					System.arraycopy(arr, start, lPrev.arr, off, siz);
 					var olSiz = lPrev.size;
-					lPrev.size += siz;
+					lPrev.setSize(olSiz + siz);
 					removeSelf();
+					merged(siz, lPrev.size, false);
 					return new StructureChange<>(lPrev, olSiz);
 				}
 			}
 			if(lNext != null){
 				int off;
 				if((off = siz + start) + lNext.size<=arr.length){
+					own();
 					System.arraycopy(lNext.arr, lNext.start, arr, off, lNext.size);
-					size += lNext.size;
+					var nSiz = lNext.size;
+					setSize(siz + nSiz);
 					lNext.removeSelf();
+					merged(nSiz, size, false);
 					return new StructureChange<>(this, 0);
 				}
 			}
@@ -552,25 +1025,102 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 				
 				var olSiz = lPrev.size;
 				
+				lPrev.own();
+				lNext.own();
 				System.arraycopy(arr, start, lPrev.arr, prevEnd, prevToAdd);
-				lPrev.size += prevToAdd;
+				lPrev.setSize(olSiz + prevToAdd);
 				
 				System.arraycopy(arr, start + prevToAdd, lNext.arr, nextStart - nextToAdd, nextToAdd);
 				lNext.start -= nextToAdd;
-				lNext.size += nextToAdd;
+				lNext.setSize(lNext.size + nextToAdd);
 				
 				removeSelf();
+				merged(siz, lPrev.size, true);
 				return new StructureChange<>(lPrev, olSiz);
 			}
 			
 			return null;
 		}
 		
+		/**
+		 * Removes the local range [from, to) by shifting whichever side is smaller
+		 */
+		private void removeRange(int from, int to){
+			var count = to - from;
+			if(count == 0) return;
+			own();
+			var s  = start;
+			var sz = size;
+			if(from<sz - to){
+				System.arraycopy(arr, s, arr, s + count, from);
+				Arrays.fill(arr, s, s + count, null);
+				start = s + count;
+			}else{
+				System.arraycopy(arr, s + to, arr, s + from, sz - to);
+				Arrays.fill(arr, s + sz - count, s + sz, null);
+			}
+			setSize(sz - count);
+			if(sz == count) start = arr.length/2;
+		}
+		
+		/**
+		 * Moves elements from the front of the next node to the end of this one until this one holds target elements.
+		 * The next node is removed if it runs out.
+		 */
+		private void fillFromNext(int target){
+			var n     = next;
+			var ns    = n.size;
+			var count = Math.min(target - size, ns);
+			if(count<=0) return;
+			own();
+			var s = size;
+			if(start + s + count>arr.length){
+				System.arraycopy(arr, start, arr, 0, s);
+				Arrays.fill(arr, Math.max(s, start), start + s, null);
+				start = 0;
+			}
+			System.arraycopy(n.arr, n.start, arr, start + s, count);
+			setSize(s + count);
+			
+			var f = finger;
+			if(count == ns){
+				if(f != null && f.node == n) finger = null;
+				n.removeSelf();
+				merged(ns, size, false);
+				return;
+			}
+			//A shared array still holds the elements for the snapshot
+			if(!n.shared) Arrays.fill(n.arr, n.start, n.start + count, null);
+			n.start += count;
+			n.setSize(ns - count);
+			if(f != null && f.node == n) finger = new Finger<>(n, f.start + count);
+		}
+		
+		/**
+		 * Moves all elements of the next node in to this one. Both need to fit in to a single array.
+		 */
+		private void mergeNext(){
+			var n  = next;
+			var ns = n.size;
+			own();
+			if(start + size + ns>arr.length){
+				System.arraycopy(arr, start, arr, 0, size);
+				Arrays.fill(arr, Math.max(size, start), start + size, null);
+				start = 0;
+			}
+			System.arraycopy(n.arr, n.start, arr, start + size, ns);
+			n.removeSelf();
+			setSize(size + ns);
+			merged(ns, size, false);
+		}
+		
 		private void removeSelf(){
 			if(prev != null) prev.next = next;
 			else head = next;
 			if(next != null) next.prev = prev;
 			else tail = prev;
+			if(indexed) indexRemove(this);
+			recycle(this);
 			size = -1;
 		}
 		@Override
@@ -583,36 +1133,757 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 		}
 		public void sort(Comparator<? super T> c){
 			if(size>1){
+				own();
 				//noinspection unchecked
 				Arrays.sort(arr, start, start + size, (Comparator<? super Object>)c);
 			}
 		}
+		
+		/**
+		 * Merges the sorted range of src in to this node. The result needs to fit in to the array.
+		 */
+		@SuppressWarnings("unchecked")
+		private void mergeIn(Object[] src, int from, int to, Comparator<? super T> c){
+			own();
+			var a     = arr;
+			var s     = size;
+			var total = s + to - from;
+			var st    = start;
+			if(st + total>a.length){
+				var ns = a.length - total;
+				System.arraycopy(a, st, a, ns, s);
+				st = ns;
+			}
+			//Backwards so nothing is overwritten before it is moved, equal new elements go after the old ones
+			int i = st + s - 1, j = to - 1, k = st + total - 1;
+			while(j>=from){
+				if(i>=st && c.compare((T)a[i], (T)src[j])>0) a[k--] = a[i--];
+				else a[k--] = src[j--];
+			}
+			start = st;
+			setSize(total);
+		}
+		
+		/**
+		 * Merges the sorted range of src with the elements of this node and spreads the result over this node and as many
+		 * new nodes after it as needed.
+		 */
+		@SuppressWarnings("unchecked")
+		private void mergeSplit(Object[] src, int from, int to, Comparator<? super T> c, Object[] buff){
+			var a     = arr;
+			var s     = size;
+			var total = s + to - from;
+			
+			int i = start, iEnd = start + s, j = from, k = 0;
+			while(i<iEnd && j<to){
+				if(c.compare((T)a[i], (T)src[j])<=0) buff[k++] = a[i++];
+				else buff[k++] = src[j++];
+			}
+			if(i<iEnd){
+				System.arraycopy(a, i, buff, k, iEnd - i);
+			}else{
+				System.arraycopy(src, j, buff, k, to - j);
+			}
+			
+			var fill      = Math.max(1, rollSize*3/4);
+			var nodeCount = (total + fill - 1)/fill;
+			var perNode   = total/nodeCount;
+			var extra     = total%nodeCount;
+			
+			var first = perNode + (extra>0? 1 : 0);
+			if(shared || a.length<first){
+				arr = new Object[Math.max(first, rollSize)];
+				shared = false;
+			}else{
+				Arrays.fill(a, start, iEnd, null);
+			}
+			System.arraycopy(buff, 0, arr, 0, first);
+			start = 0;
+			setSize(first);
+			
+			var node = this;
+			for(int n = 1, pos = first; n<nodeCount; n++){
+				var count = perNode + (n<extra? 1 : 0);
+				node.insertNext();
+				node = node.next;
+				if(node.arr.length<count) node.arr = new Object[count];
+				System.arraycopy(buff, pos, node.arr, 0, count);
+				node.setSize(count);
+				pos += count;
+			}
+			Arrays.fill(buff, 0, total, null);
+		}
+		
+		/**
+		 * Local index of the first element greater than (upper) or not less than (!upper) the key
+		 */
+		@SuppressWarnings("unchecked")
+		private int bound(T key, Comparator<? super T> c, boolean upper){
+			int lo = 0, hi = size;
+			while(lo<hi){
+				var mid = (lo + hi)>>>1;
+				var cmp = c.compare((T)arr[start + mid], key);
+				if(upper? cmp>0 : cmp>=0) hi = mid;
+				else lo = mid + 1;
+			}
+			return lo;
+		}
 	}
 	
-	private       int size;
-	private final int rollSize;
+	/**
+	 * Nodes in list order with their first elements and a Fenwick tree over their sizes. Sorted searches binary search
+	 * the first elements to pick a node and get its global start from the tree, so they never walk the node chain.
+	 * Any write makes it stale except for {@link #addRemainSorted}, which patches it in place.
+	 */
+	private final class Fences{
+		@SuppressWarnings("unchecked")
+		private Node[]   nodes = (Node[])Array.newInstance(Node.class, 16);
+		private Object[] keys  = new Object[16];
+		private int[]    sizes = new int[16], tree = new int[17];
+		private int      count;
+		private int      stamp;
+		
+		private void rebuild(){
+			int c = 0;
+			for(var n = head; n != null; n = n.next){
+				if(n.size == 0) continue;
+				if(c == nodes.length) grow();
+				nodes[c] = n;
+				keys[c] = n.arr[n.start];
+				sizes[c] = n.size;
+				c++;
+			}
+			if(c<count){
+				Arrays.fill(nodes, c, count, null);
+				Arrays.fill(keys, c, count, null);
+			}
+			count = c;
+			buildTree();
+			stamp = writeStamp;
+		}
+		
+		private void grow(){
+			var cap = nodes.length*2;
+			nodes = Arrays.copyOf(nodes, cap);
+			keys = Arrays.copyOf(keys, cap);
+			sizes = Arrays.copyOf(sizes, cap);
+			tree = new int[cap + 1];
+		}
+		
+		private void buildTree(){
+			var t = tree;
+			var c = count;
+			Arrays.fill(t, 0, c + 1, 0);
+			for(int i = 1; i<=c; i++){
+				t[i] += sizes[i - 1];
+				var j = i + (i&-i);
+				if(j<=c) t[j] += t[i];
+			}
+		}
+		
+		/**
+		 * Global index of the first element in node i
+		 */
+		private int start(int i){
+			int s = 0;
+			for(; i>0; i -= i&-i) s += tree[i];
+			return s;
+		}
+		
+		/**
+		 * Index of the first node whose first element is greater than (upper) or not less than (!upper) the key
+		 */
+		@SuppressWarnings("unchecked")
+		private int find(T key, Comparator<? super T> c, boolean upper){
+			int lo = 0, hi = count;
+			while(lo<hi){
+				var mid = (lo + hi)>>>1;
+				var cmp = c.compare((T)keys[mid], key);
+				if(upper? cmp>0 : cmp>=0) hi = mid;
+				else lo = mid + 1;
+			}
+			return lo;
+		}
+		
+		/**
+		 * Brings the entries around node i up to date after a single insert in to it. The insert may have moved elements
+		 * to a direct neighbour or split off a new node right after it.
+		 */
+		private void patch(int i){
+			var next     = nodes[i].next;
+			var expected = i + 1<count? nodes[i + 1] : null;
+			var split    = next != expected;
+			if(split){
+				if(next == null || next.next != expected){
+					fences = null;
+					return;
+				}
+				if(count == nodes.length) grow();
+				var toMove = count - i - 1;
+				System.arraycopy(nodes, i + 1, nodes, i + 2, toMove);
+				System.arraycopy(keys, i + 1, keys, i + 2, toMove);
+				System.arraycopy(sizes, i + 1, sizes, i + 2, toMove);
+				nodes[i + 1] = next;
+				count++;
+			}
+			for(int j = Math.max(0, i - 1), e = Math.min(count, i + 3); j<e; j++){
+				var n     = nodes[j];
+				var delta = n.size - sizes[j];
+				keys[j] = n.arr[n.start];
+				if(delta != 0){
+					sizes[j] = n.size;
+					if(!split){
+						for(int k = j + 1; k<=count; k += k&-k) tree[k] += delta;
+					}
+				}
+			}
+			if(split) buildTree();
+			stamp = writeStamp;
+		}
+	}
 	
-	private Node head, tail;
+	private static final int PARALLEL_SORT_MIN = 1<<13;
 	
-	public UnrolledLinkedList(){
-		this(16);
-	}
-	public UnrolledLinkedList(int rollSize){
+	private static final int ADAPTIVE_MIN = 16, ADAPTIVE_MAX = 1024;
+	
+	/**
+	 * "ULL1", start of a {@link #writeTo} stream
+	 */
+	private static final int STREAM_MAGIC = 0x554C4C31;
+	/**
+	 * Element count and payload byte length of a block
+	 */
+	private static final int BLOCK_HEADER = Integer.BYTES*2;
+	
+	/**
+	 * Enables the event counters of {@link #stats()}. Constant so the counting code is dropped by the JIT when off.
+	 */
+	static final boolean STATS = Boolean.parseBoolean(System.getProperty("unrolledlist.stats", "false"));
+	
+	private static final int FILL_BUCKETS = 10;
+	/**
+	 * Shallow sizes with compressed oops and 8 byte alignment. A node has a 12 byte header, 5 references, 2 ints and a
+	 * boolean, which pads to 48. UnrolledTest checks them against the declared fields.
+	 */
+	static final int LIST_BYTES = 120, NODE_BYTES = 48, BRANCH_BYTES = 32, ARRAY_HEADER_BYTES = 16;
+	
+	private       int     size;
+	/**
+	 * Capacity of new nodes. Follows the size and access mix of the list when adaptive.
+	 */
+	private       int     rollSize;
+	private final boolean indexed;
+	private final boolean adaptive;
+	/**
+	 * Access mix of an adaptive list. Concurrent readers can lose increments, that only makes adaptation a bit slower.
+	 */
+	private       int     reads, writes;
+	
+	/**
+	 * Cleared arrays of removed nodes, reused by new nodes. Null when pooling is off.
+	 */
+	private Object[][] arrayPool;
+	private int        pooled;
+	
+	/**
+	 * Fill that incremental compaction keeps nodes at, 0 when it is off. The cursor sweeps the chain when the node
+	 * touched by a removal does not need work.
+	 */
+	private double compactTarget;
+	private Node   compactCursor;
+	private int    compactGen;
+	
+	private long expands, defrags, transfers;
+	/**
+	 * Snapshots and {@link #getDetached} are walked by concurrent readers, so these can not be plain fields. Null unless
+	 * {@link #STATS} is on.
+	 */
+	private final LongAdder walks    = STATS? new LongAdder() : null;
+	private final LongAdder walkHops = STATS? new LongAdder() : null;
+	
+	private Node       head, tail;
+	private IndexEntry indexRoot;
+	
+	/**
+	 * Snapshots are immutable and only read from their nodes, so they are safe to share between threads.
+	 */
+	private final boolean frozen;
+	/**
+	 * The node chain is also owned by a snapshot. All node headers are copied on the next write, arrays as they are
+	 * written. The chain is doubly linked and nodes point to their index branch, so a single header can not be replaced
+	 * without touching its neighbours all the way to the ends.
+	 */
+	private       boolean headersShared;
+	/**
+	 * Incremented when node headers are replaced. Iterators holding old nodes can no longer modify the list.
+	 */
+	private       int     headerGen;
+	
+	/**
+	 * Last resolved node and its global start. Positional access tends to be close to the previous one so walks start
+	 * from here when that is closer than the ends. Readers take the node and start from the one object they resolved,
+	 * so concurrent {@link #get(int)} calls on a list that is not being written can race on the finger safely.
+	 */
+	private Finger<T> finger;
+	
+	/**
+	 * Incremented by every write. Sorted searches use it to tell if the fences are still valid.
+	 */
+	private          int    writeStamp;
+	/**
+	 * Volatile as snapshots build it lazily and may be searched from many threads.
+	 */
+	private volatile Fences fences;
+	
+	public UnrolledLinkedList(){
+		this(16);
+	}
+	public UnrolledLinkedList(int rollSize){
+		this(rollSize, false);
+	}
+	/**
+	 * @param indexed if true, a counted index is kept over the nodes. This makes positional access O(log n) at the cost of
+	 *                some memory per node and a small overhead on structural changes. Recommended for very large lists.
+	 */
+	public UnrolledLinkedList(int rollSize, boolean indexed){
+		this(rollSize, indexed, false, false);
+	}
+	private UnrolledLinkedList(int rollSize, boolean indexed, boolean frozen, boolean adaptive){
 		this.rollSize = rollSize;
+		this.indexed = indexed;
+		this.frozen = frozen;
+		this.adaptive = adaptive;
+	}
+	
+	public static <T> UnrolledLinkedList<T> adaptive(){
+		return adaptive(false);
+	}
+	/**
+	 * Creates a list where node capacity follows the size of the list, about 4*sqrt(n) clamped to [16, 1024]. Read heavy
+	 * use leans towards up to twice as large nodes for shorter walks. Existing nodes are resized lazily when they fill up,
+	 * split in to a neighbour, merge with one or drain.
+	 */
+	public static <T> UnrolledLinkedList<T> adaptive(boolean indexed){
+		return new UnrolledLinkedList<>(ADAPTIVE_MIN, indexed, false, true);
+	}
+	
+	/**
+	 * Keeps up to maxArrays arrays of removed nodes and reuses them for new nodes instead of allocating. This cuts
+	 * down on garbage under steady insert and remove churn at the cost of holding on to the pooled memory. Arrays that
+	 * are shared with a snapshot are never pooled. 0 disables pooling and releases the pooled arrays.
+	 */
+	public void setArrayPoolSize(int maxArrays){
+		if(maxArrays<0) throw new IllegalArgumentException("maxArrays can not be negative");
+		if(frozen) throw new UnsupportedOperationException("Snapshots are immutable");
+		if(maxArrays == 0){
+			arrayPool = null;
+			pooled = 0;
+			return;
+		}
+		var old = arrayPool;
+		arrayPool = new Object[maxArrays][];
+		if(old != null){
+			pooled = Math.min(pooled, maxArrays);
+			System.arraycopy(old, 0, arrayPool, 0, pooled);
+		}
+	}
+	/**
+	 * Repacks the node chain in one pass. Every node that is below the target fill takes elements from the front of the
+	 * following nodes, nodes that run empty are released. Nodes that are already fuller are left as they are.
+	 *
+	 * @param targetFill fraction of a node to fill, in (0, 1]. Less than 1 leaves room for inserts without splitting.
+	 */
+	public void compact(double targetFill){
+		checkFill(targetFill);
+		prepareWrite();
+		for(var node = head; node != null && node.next != null; ){
+			var target = fillTarget(node, targetFill);
+			if(node.size<target) node.fillFromNext(target);
+			else node = node.next;
+		}
+	}
+	
+	/**
+	 * Packs all nodes completely and drops the pooled arrays
+	 */
+	public void trimToSize(){
+		compact(1);
+		if(arrayPool != null){
+			Arrays.fill(arrayPool, 0, pooled, null);
+			pooled = 0;
+		}
+	}
+	
+	/**
+	 * Makes every removal refill at most one node that is below the target fill, from the node after it. The node the
+	 * removal happened in goes first, otherwise a cursor that sweeps the chain finds the next one. This keeps the list
+	 * compact without a pause for a full {@link #compact(double)}.
+	 *
+	 * @param targetFill fraction of a node to keep filled, in (0, 1]. 0 turns incremental compaction off.
+	 */
+	public void setIncrementalCompaction(double targetFill){
+		if(targetFill != 0) checkFill(targetFill);
+		if(frozen) throw new UnsupportedOperationException("Snapshots are immutable");
+		compactTarget = targetFill;
+		compactCursor = null;
+	}
+	public double getIncrementalCompaction(){
+		return compactTarget;
+	}
+	
+	private static void checkFill(double targetFill){
+		if(!(targetFill>0 && targetFill<=1)) throw new IllegalArgumentException("targetFill needs to be in (0, 1], was " + targetFill);
+	}
+	private int fillTarget(Node node, double fill){
+		return Math.max(1, (int)(node.arr.length*fill));
+	}
+	
+	/**
+	 * Bounded step of incremental compaction, at most one node copy
+	 *
+	 * @param touched node a removal happened in, may be null or removed
+	 */
+	private void compactStep(Node touched){
+		var fill = compactTarget;
+		if(touched != null && touched.size>=0 && touched.next != null){
+			var target = fillTarget(touched, fill);
+			if(touched.size<target){
+				touched.fillFromNext(target);
+				return;
+			}
+		}
+		
+		var node = compactCursor;
+		if(node == null || node.size<0 || compactGen != headerGen) node = head;
+		for(int i = 0; i<4 && node != null; i++){
+			var next = node.next;
+			if(next == null){
+				node = head;
+				break;
+			}
+			var target = fillTarget(node, fill);
+			if(node.size<target){
+				node.fillFromNext(target);
+				break;
+			}
+			node = next;
+		}
+		compactCursor = node;
+		compactGen = headerGen;
+	}
+	
+	public int getArrayPoolSize(){
+		var pool = arrayPool;
+		return pool == null? 0 : pool.length;
+	}
+	
+	private void recycle(Node node){
+		var pool = arrayPool;
+		if(pool == null || node.shared || pooled == pool.length) return;
+		var arr = node.arr;
+		if(arr.length != rollSize) return;
+		var s = node.start;
+		Arrays.fill(arr, s, s + Math.max(node.size, 0), null);
+		pool[pooled++] = arr;
+	}
+	
+	private Object[] newArray(){
+		if(adaptive) retarget(size);
+		return takeArray();
+	}
+	private Object[] takeArray(){
+		var p = pooled;
+		if(p>0){
+			var pool = arrayPool;
+			var arr  = pool[--p];
+			pool[p] = null;
+			pooled = p;
+			//Adaptive capacity may have moved on since the array was pooled
+			if(arr.length == rollSize) return arr;
+		}
+		return new Object[rollSize];
+	}
+	
+	private int targetCapacity(){
+		retarget(size);
+		return rollSize;
+	}
+	
+	private void retarget(int forSize){
+		int r = reads, w = writes;
+		if(r + w>1<<20){
+			reads = r >>= 1;
+			writes = w >>= 1;
+		}
+		rollSize = capacityFor(forSize, r, w);
+	}
+	private static int capacityFor(int forSize, int r, int w){
+		var mix    = Math.sqrt(Math.sqrt((r + 1D)/(w + 1D)));
+		var factor = Math.max(1, Math.min(2, mix));
+		//A node hop is a likely cache miss while shifting an element is a cheap part of an arraycopy. Positional writes
+		//walk to their node like reads do, so only reads move the capacity away from the insert optimum.
+		var target = (int)(Math.sqrt(forSize)*4*factor);
+		return Math.max(ADAPTIVE_MIN, Math.min(ADAPTIVE_MAX, target));
+	}
+	
+	/**
+	 * Creates an immutable copy of the current contents in O(1). The snapshot takes over the current nodes and the next
+	 * write to this list copies all node headers, and rebuilds the index of an indexed list. That write costs
+	 * O(n/rollSize) time and one small header per node. Element arrays stay shared until this list writes to them, so
+	 * only the arrays of modified nodes are copied.
+	 * <p>
+	 * Snapshots can be read from multiple threads. Iterators of this list that were created before the snapshot can
+	 * not modify the list after it.
+	 */
+	public UnrolledLinkedList<T> snapshot(){
+		if(frozen) return this;
+		var snap = new UnrolledLinkedList<T>(rollSize, indexed, true, adaptive);
+		snap.head = head;
+		snap.tail = tail;
+		snap.size = size;
+		snap.indexRoot = indexRoot;
+		headersShared = head != null;
+		return snap;
+	}
+	
+	public boolean isSnapshot(){
+		return frozen;
+	}
+	
+	/**
+	 * Streams all elements to a blocking channel. The stream is a header with the element count followed by one or more
+	 * blocks per node. A block is the element count and byte length of its payload followed by the encoded elements, it
+	 * fits in to the IO buffer unless a single element does not. Does not move the finger, so a snapshot can be written
+	 * while other threads read it.
+	 */
+	public void writeTo(WritableByteChannel out, ElementCodec<? super T> codec) throws IOException{
+		var buf = DirectBuffers.take();
+		try{
+			buf.putInt(STREAM_MAGIC).putInt(size);
+			var fixed    = codec.fixedSize();
+			var maxBytes = buf.capacity() - BLOCK_HEADER;
+			for(var n = head; n != null; n = n.next){
+				var arr = n.arr;
+				for(int i = n.start, end = i + n.size; i<end; ){
+					int count, bytes;
+					if(fixed>=0){
+						count = Math.min(end - i, Math.max(1, maxBytes/Math.max(1, fixed)));
+						bytes = count*fixed;
+					}else{
+						count = 0;
+						bytes = 0;
+						do{
+							//noinspection unchecked
+							var s = codec.size((T)arr[i + count]);
+							if(count>0 && bytes + s>maxBytes) break;
+							bytes += s;
+							count++;
+						}while(i + count<end);
+					}
+					
+					if(buf.remaining()<BLOCK_HEADER + bytes) flush(out, buf);
+					buf.putInt(count).putInt(bytes);
+					ByteBuffer dest;
+					if(buf.remaining()<bytes){
+						flush(out, buf);
+						dest = ByteBuffer.allocate(bytes);
+					}else dest = buf;
+					
+					var pos = dest.position();
+					codec.writeAll(dest, arr, i, i + count);
+					if(dest.position() - pos != bytes){
+						throw new IllegalStateException("Codec wrote " + (dest.position() - pos) + " bytes, but its size was " + bytes);
+					}
+					if(dest != buf) flush(out, dest);
+					i += count;
+				}
+			}
+			flush(out, buf);
+		}finally{
+			DirectBuffers.give(buf);
+		}
+	}
+	
+	/**
+	 * Appends the elements of a stream written by {@link #writeTo} from a blocking channel. The elements are decoded
+	 * straight in to completely filled nodes that are linked in at the end, nothing goes through {@link #add}. The list
+	 * does not change if reading fails. The whole stream is decoded in to freshly allocated arrays before the list is
+	 * touched, pooled arrays are not used. Reads stop at the end of the stream, so more data can follow it on the channel.
+	 */
+	public void readFrom(ReadableByteChannel in, ElementCodec<? extends T> codec) throws IOException{
+		if(frozen) throw new UnsupportedOperationException("Snapshots are immutable");
+		var buf = DirectBuffers.take();
+		try{
+			buf.flip();
+			fill(in, buf, Integer.BYTES*2);
+			if(buf.getInt() != STREAM_MAGIC) throw new IOException("Not an unrolled list stream");
+			var total = buf.getInt();
+			if(total<0) throw new IOException("Corrupt stream, negative size");
+			var capacity = adaptive? capacityFor(size + total, reads, writes) : rollSize;
+			
+			Node     first = null, last = null;
+			Object[] arr   = null;
+			int      fill  = 0;
+			
+			var remaining = total;
+			while(remaining>0){
+				fill(in, buf, BLOCK_HEADER);
+				int count = buf.getInt(), bytes = buf.getInt();
+				if(count<=0 || count>remaining || bytes<0) throw new IOException("Corrupt stream, bad block header");
+				remaining -= count;
+				//The header of the next block is read together with this payload
+				var ahead = remaining>0 && bytes + BLOCK_HEADER<=buf.capacity()? BLOCK_HEADER : 0;
+				
+				ByteBuffer src;
+				if(bytes>buf.capacity()){
+					src = ByteBuffer.allocate(bytes).put(buf);
+					while(src.hasRemaining()){
+						if(in.read(src)<0) throw new EOFException();
+					}
+					src.flip();
+				}else{
+					fill(in, buf, bytes + ahead);
+					src = buf;
+				}
+				
+				var blockEnd = src.position() + bytes;
+				while(count>0){
+					if(arr == null || fill == arr.length){
+						if(arr != null){
+							var node = new Node(arr);
+							node.size = fill;
+							node.prev = last;
+							if(last == null) first = node;
+							else last.next = node;
+							last = node;
+						}
+						arr = new Object[capacity];
+						fill = 0;
+					}
+					var n = Math.min(count, arr.length - fill);
+					codec.readAll(src, arr, fill, fill + n);
+					fill += n;
+					count -= n;
+				}
+				if(src.position() != blockEnd){
+					throw new IOException("Codec read " + (src.position() - (blockEnd - bytes)) + " bytes of a " + bytes + " byte block");
+				}
+			}
+			if(arr != null){
+				var node = new Node(arr);
+				node.size = fill;
+				node.prev = last;
+				if(last == null) first = node;
+				else last.next = node;
+				last = node;
+			}
+			
+			if(first == null) return;
+			prepareWrite();
+			if(adaptive) retarget(size + total);
+			if(tail == null) head = first;
+			else{
+				tail.next = first;
+				first.prev = tail;
+			}
+			tail = last;
+			size += total;
+			if(indexed) indexRebuild();
+		}finally{
+			DirectBuffers.give(buf);
+		}
+	}
+	
+	/**
+	 * Makes sure that the buffer, in read mode, has at least the given number of bytes remaining. Never reads past them,
+	 * the channel can hold data that is not part of the stream.
+	 */
+	private static void fill(ReadableByteChannel in, ByteBuffer buf, int bytes) throws IOException{
+		if(buf.remaining()>=bytes) return;
+		buf.compact().limit(bytes);
+		while(buf.hasRemaining()){
+			if(in.read(buf)<0) throw new EOFException();
+		}
+		buf.flip();
+	}
+	private static void flush(WritableByteChannel out, ByteBuffer buf) throws IOException{
+		buf.flip();
+		while(buf.hasRemaining()) out.write(buf);
+		buf.clear();
+	}
+	
+	private void prepareWrite(){
+		prepareWrite(null);
+	}
+	/**
+	 * Needs to be called before any modification.
+	 *
+	 * @param iter iterator that triggered the write, its nodes are moved over to the new headers
+	 */
+	private void prepareWrite(UnrolledIterator iter){
+		if(frozen) throw new UnsupportedOperationException("Snapshots are immutable");
+		writeStamp++;
+		if(headersShared) unshare(iter);
+	}
+	
+	private void unshare(UnrolledIterator iter){
+		headersShared = false;
+		headerGen++;
+		finger = null;
+		
+		Node prev = null;
+		for(var old = head; old != null; old = old.next){
+			var node = new Node(old.arr);
+			node.start = old.start;
+			node.size = old.size;
+			node.shared = true;
+			node.prev = prev;
+			if(prev == null) head = node;
+			else prev.next = node;
+			prev = node;
+			
+			if(iter != null){
+				if(iter.node == old) iter.node = node;
+				if(iter.nodeLastRet == old) iter.nodeLastRet = node;
+			}
+		}
+		tail = prev;
+		if(iter != null) iter.gen = headerGen;
+		if(indexed) indexRebuild();
 	}
 	
 	@Override
 	public T get(int index){
+		if(frozen) return getDetached(index);
+		Objects.checkIndex(index, size);
+		if(adaptive) reads++;
+		var f = resolve(index);
+		return f.node.get(index - f.start);
+	}
+	
+	/**
+	 * Same as {@link #get(int)} but does not use or move the finger, so concurrent calls only read the list.
+	 */
+	T getDetached(int index){
 		Objects.checkIndex(index, size);
 		var res = nodeWalk(index);
 		return res.node.get(res.localPos);
 	}
 	
+	/**
+	 * Changes on every write, so a caller can tell if the list was modified since it last looked
+	 */
+	int writeStamp(){
+		return writeStamp;
+	}
+	
 	@Override
 	public boolean add(T t){
+		prepareWrite();
 		if(tail == null) makeFirst();
-		var res = nodeWalk(size);
-		res.node.add(res.localPos, t);
+		//Appending only changes the tail and nodes after it so the finger stays valid
+		var last = tail;
+		last.add(last.size, t);
 		size++;
 		return true;
 	}
@@ -620,39 +1891,398 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 	@Override
 	public void add(int index, T element){
 		Objects.checkIndex(index, size + 1);
-		var res = nodeWalk(index);
-		res.node.add(res.localPos, element);
+		prepareWrite();
+		if(adaptive) writes++;
+		if(tail == null) makeFirst();
+		var f         = resolve(index);
+		var node      = f.node;
+		var localPos  = index - f.start;
+		var prev      = node.prev;
+		var prevStart = prev == null? 0 : f.start - prev.size;
+		
+		node.add(localPos, element);
 		size++;
+		refinger(prev, prevStart);
+	}
+	
+	@Override
+	public boolean addAll(Collection<? extends T> c){
+		return addAll(size, c);
+	}
+	
+	/**
+	 * Large batches are copied in to fresh nodes that are then spliced in to the chain. Nodes are filled to 3/4 so that
+	 * later inserts do not need to expand right away.
+	 */
+	@Override
+	public boolean addAll(int index, Collection<? extends T> c){
+		Objects.checkIndex(index, size + 1);
+		var src   = c.toArray();
+		var count = src.length;
+		if(count == 0) return false;
+		prepareWrite();
+		
+		if(count<rollSize){
+			for(int i = 0; i<count; i++){
+				//noinspection unchecked
+				add(index + i, (T)src[i]);
+			}
+			return true;
+		}
+		
+		Node before, after;
+		if(head == null){
+			before = after = null;
+		}else{
+			var f        = resolve(index);
+			var node     = f.node;
+			var localPos = index - f.start;
+			if(localPos == 0){
+				before = node.prev;
+				after = node;
+			}else{
+				if(localPos<node.size){
+					node.own();
+					node.insertNext();
+					var split  = node.next;
+					var toMove = node.size - localPos;
+					var from   = node.start + localPos;
+					if(split.arr.length<toMove) split.arr = new Object[toMove];
+					System.arraycopy(node.arr, from, split.arr, 0, toMove);
+					Arrays.fill(node.arr, from, from + toMove, null);
+					split.setSize(toMove);
+					node.setSize(localPos);
+				}
+				before = node;
+				after = node.next;
+			}
+		}
+		
+		if(adaptive) retarget(size + count);
+		var fill      = Math.max(1, rollSize*3/4);
+		var nodeCount = (count + fill - 1)/fill;
+		var perNode   = count/nodeCount;
+		var extra     = count%nodeCount;
+		
+		Node first = null, last = null;
+		for(int i = 0, pos = 0; i<nodeCount; i++){
+			var n    = perNode + (i<extra? 1 : 0);
+			var node = new Node(takeArray());
+			System.arraycopy(src, pos, node.arr, 0, n);
+			node.size = n;
+			pos += n;
+			
+			if(last == null) first = node;
+			else{
+				last.next = node;
+				node.prev = last;
+			}
+			last = node;
+		}
+		
+		if(indexed && before != null && nodeCount*8<indexRoot.leaves()){
+			//Index rebalancing walks the chain so nodes need to be linked one at a time
+			var prev = before;
+			for(var node = first; node != null; ){
+				var nextNew = node.next;
+				node.prev = prev;
+				node.next = after;
+				prev.next = node;
+				if(after == null) tail = node;
+				else after.prev = node;
+				indexInsertAfter(prev, node);
+				prev = node;
+				node = nextNew;
+			}
+		}else{
+			first.prev = before;
+			if(before == null) head = first;
+			else before.next = first;
+			last.next = after;
+			if(after == null) tail = last;
+			else after.prev = last;
+			if(indexed) indexRebuild();
+		}
+		
+		size += count;
+		finger = new Finger<>(first, index);
+		return true;
 	}
 	
 	@Override
 	public T remove(int index){
 		Objects.checkIndex(index, size);
-		var res      = nodeWalk(index);
-		var node     = res.node;
-		var localPos = res.localPos;
+		prepareWrite();
+		if(adaptive) writes++;
+		var f         = resolve(index);
+		var node      = f.node;
+		var localPos  = index - f.start;
+		var prev      = node.prev;
+		var prevStart = prev == null? 0 : f.start - prev.size;
 		
 		var old = node.get(localPos);
 		node.remove(localPos);
 		size--;
+		refinger(prev, prevStart);
+		if(compactTarget>0) compactStep(node);
 		return old;
 	}
 	
+	/**
+	 * Whole nodes inside the range are unlinked, only the two boundary nodes are trimmed.
+	 */
+	@Override
+	protected void removeRange(int fromIndex, int toIndex){
+		Objects.checkFromToIndex(fromIndex, toIndex, size);
+		var count = toIndex - fromIndex;
+		if(count == 0) return;
+		if(count == size){
+			clear();
+			return;
+		}
+		prepareWrite();
+		
+		var f          = resolve(fromIndex);
+		var first      = f.node;
+		var firstStart = f.start;
+		finger = null;
+		
+		var last      = first;
+		var lastStart = firstStart;
+		int between   = 0;
+		while(lastStart + last.size<toIndex){
+			lastStart += last.size;
+			last = last.next;
+			between++;
+		}
+		size -= count;
+		
+		if(first == last){
+			first.removeRange(fromIndex - firstStart, toIndex - firstStart);
+			if(first.size == 0) first.removeSelf();
+			else if(first.size<first.arr.length/2) first.defrag();
+			if(compactTarget>0) compactStep(first);
+			return;
+		}
+		between--;
+		
+		first.removeRange(fromIndex - firstStart, first.size);
+		last.removeRange(0, toIndex - lastStart);
+		
+		if(between>0){
+			if(indexed && between*8>indexRoot.leaves()){
+				for(var n = first.next; n != last; n = n.next){
+					recycle(n);
+					n.size = -1;
+				}
+				first.next = last;
+				last.prev = first;
+				indexRebuild();
+			}else{
+				for(var n = first.next; n != last; n = n.next){
+					n.removeSelf();
+				}
+			}
+		}
+		
+		if(first.size == 0){
+			first.removeSelf();
+			first = null;
+		}
+		if(last.size == 0){
+			last.removeSelf();
+			last = null;
+		}
+		if(first != null && last != null){
+			if(first.size + last.size<=first.arr.length) first.mergeNext();
+			else if(first.size<first.arr.length/2) first.defrag();
+			else if(last.size<last.arr.length/2) last.defrag();
+		}else{
+			var remaining = first != null? first : last;
+			if(remaining != null && remaining.size<remaining.arr.length/2) remaining.defrag();
+		}
+		if(compactTarget>0) compactStep(first != null? first : last);
+	}
+	
+	/**
+	 * Removes all elements from newSize onwards
+	 */
+	public void truncate(int newSize){
+		Objects.checkIndex(newSize, size + 1);
+		removeRange(newSize, size);
+	}
+	
+	/**
+	 * Removes the first n elements
+	 */
+	public void dropFirst(int n){
+		Objects.checkIndex(n, size + 1);
+		removeRange(0, n);
+	}
+	
+	/**
+	 * Inserts in to the head node directly. Nodes keep free space in front of their elements so this usually does not
+	 * move anything.
+	 */
+	@Override
+	public void addFirst(T t){
+		prepareWrite();
+		var first = head;
+		if(first == null){
+			makeFirst();
+			first = head;
+		}else if(first.start == 0 && first.size == first.arr.length && !first.tryGrow()){
+			first = insertFirst();
+		}
+		first.addFirst(t);
+		size++;
+		//Every position moved, the head is the only node whose start is known
+		refinger(null, 0);
+	}
+	@Override
+	public void addLast(T t){
+		add(t);
+	}
+	@Override
+	public boolean offerFirst(T t){
+		addFirst(t);
+		return true;
+	}
+	@Override
+	public boolean offerLast(T t){
+		return add(t);
+	}
+	
+	@Override
+	public T pollFirst(){
+		if(size == 0) return null;
+		prepareWrite();
+		var first = head;
+		var old   = first.get(0);
+		first.remove(0);
+		size--;
+		refinger(null, 0);
+		if(compactTarget>0) compactStep(first);
+		return old;
+	}
+	@Override
+	public T pollLast(){
+		if(size == 0) return null;
+		prepareWrite();
+		var last      = tail;
+		var prev      = last.prev;
+		var prevStart = prev == null? 0 : size - last.size - prev.size;
+		
+		var old = last.getLast();
+		last.remove(last.size - 1);
+		size--;
+		refinger(prev, prevStart);
+		if(compactTarget>0) compactStep(prev);
+		return old;
+	}
+	@Override
+	public T removeFirst(){
+		if(size == 0) throw new NoSuchElementException();
+		return pollFirst();
+	}
+	@Override
+	public T removeLast(){
+		if(size == 0) throw new NoSuchElementException();
+		return pollLast();
+	}
+	
+	@Override
+	public T peekFirst(){
+		return size == 0? null : head.get(0);
+	}
+	@Override
+	public T peekLast(){
+		return size == 0? null : tail.getLast();
+	}
+	@Override
+	public T getFirst(){
+		if(size == 0) throw new NoSuchElementException();
+		return head.get(0);
+	}
+	@Override
+	public T getLast(){
+		if(size == 0) throw new NoSuchElementException();
+		return tail.getLast();
+	}
+	
+	@Override
+	public boolean removeFirstOccurrence(Object o){
+		return remove(o);
+	}
+	@Override
+	public boolean removeLastOccurrence(Object o){
+		for(var iter = descendingIterator(); iter.hasNext(); ){
+			if(Objects.equals(iter.next(), o)){
+				iter.remove();
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	@Override
+	public boolean offer(T t){ return add(t); }
+	@Override
+	public T remove(){ return removeFirst(); }
+	@Override
+	public T poll(){ return pollFirst(); }
+	@Override
+	public T element(){ return getFirst(); }
+	@Override
+	public T peek(){ return peekFirst(); }
+	@Override
+	public void push(T t){ addFirst(t); }
+	@Override
+	public T pop(){ return removeFirst(); }
+	
 	@Override
 	public T set(int index, T element){
 		Objects.checkIndex(index, size);
-		var res = nodeWalk(index);
-		return res.node.set(res.localPos, element);
+		prepareWrite();
+		if(adaptive) reads++;
+		var f = resolve(index);
+		return f.node.set(index - f.start, element);
 	}
 	
 	@Override
 	public void clear(){
+		if(frozen) throw new UnsupportedOperationException("Snapshots are immutable");
+		writeStamp++;
+		if(arrayPool != null && !headersShared){
+			for(var n = head; n != null && pooled<arrayPool.length; n = n.next){
+				recycle(n);
+			}
+		}
+		headersShared = false;
+		fences = null;
+		compactCursor = null;
 		size = 0;
 		tail = head = null;
+		indexRoot = null;
+		finger = null;
+	}
+	
+	/**
+	 * Links a new empty node in front of the head
+	 */
+	private Node insertFirst(){
+		var node  = new Node(newArray());
+		var first = head;
+		node.next = first;
+		first.prev = node;
+		head = node;
+		if(indexed) indexInsertBefore(first, node);
+		return node;
 	}
 	
 	private void makeFirst(){
-		tail = head = new Node(new Object[rollSize]);
+		tail = head = new Node(newArray());
+		if(indexed) indexRoot = head;
 	}
 	
 	@Override
@@ -660,47 +2290,405 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 		return size;
 	}
 	
+	/**
+	 * Does not read or modify the finger, so it is safe to call from spliterators running in parallel.
+	 */
 	private NodeResult<T> nodeWalk(int offset){
 		if(head == null){
 			//noinspection unchecked
 			return (NodeResult<T>)NodeResult.EMPTY;
 		}
+		if(indexed){
+			return indexWalk(offset);
+		}
 		if(offset>size>>1){
 			return walkBackwards(offset, tail, size);
 		}
 		return walkForwards(offset, head, 0);
 	}
 	
+	/**
+	 * Finds the node containing the offset and moves the finger to it. The local position is {@code offset - start}.
+	 * Every walk result is consumed on its own branch so escape analysis can drop the allocation.
+	 */
+	private Finger<T> resolve(int offset){
+		var f = finger;
+		if(f != null){
+			var fNode = f.node;
+			var dist  = offset - f.start;
+			if(dist>=0 && dist<fNode.size) return f;
+			
+			var fDist = Math.abs(dist);
+			if(indexed? fDist<=rollSize*4 : fDist<offset && fDist<size - offset){
+				if(dist>0) return moveFinger(walkForwards(offset, fNode, f.start), offset);
+				return moveFinger(walkBackwards(offset, fNode, f.start + fNode.size), offset);
+			}
+		}
+		if(head == null) return new Finger<>(null, offset);
+		if(indexed) return moveFinger(indexWalk(offset), offset);
+		if(offset>size>>1) return moveFinger(walkBackwards(offset, tail, size), offset);
+		return moveFinger(walkForwards(offset, head, 0), offset);
+	}
+	
+	/**
+	 * Same as {@link #resolve} but can also walk forwards from a known node at or before the offset, whichever is closer
+	 */
+	private Finger<T> resolveFrom(Node node, int nodeStart, int offset){
+		var f    = finger;
+		var dist = offset - nodeStart;
+		if(f != null){
+			var fDist = offset - f.start;
+			if(fDist>=0 && fDist<f.node.size) return f;
+			if(Math.abs(fDist)<dist) return resolve(offset);
+		}
+		if(indexed && dist>rollSize*4) return resolve(offset);
+		return moveFinger(walkForwards(offset, node, nodeStart), offset);
+	}
+	
+	private Finger<T> moveFinger(NodeResult<T> res, int offset){
+		var f = new Finger<>(res.node, offset - res.localPos);
+		finger = f;
+		return f;
+	}
+	
+	/**
+	 * Structural changes only touch a node and its direct neighbours. The start of the previous node is not affected so
+	 * the finger can be kept there.
+	 */
+	private void refinger(Node prev, int prevStart){
+		if(prev != null) finger = new Finger<>(prev, prevStart);
+		else finger = head == null? null : new Finger<>(head, 0);
+	}
+	
 	private NodeResult<T> walkForwards(int offset, Node start, int startPos){
 		Node node      = start;
 		int  remaining = offset - startPos;
+		int  hops      = 0;
 		while(remaining>=node.size){
 			var next = node.next;
 			if(next == null) break;
 			remaining -= node.size;
 			node = next;
+			hops++;
 		}
+		walked(offset, hops);
 		return new NodeResult<>(node, remaining);
 	}
 	
 	private NodeResult<T> walkBackwards(int offset, Node start, int startPos){
 		Node node      = start;
 		int  remaining = startPos - offset;
+		int  hops      = 0;
 		while(remaining>node.size){
 			var prev = node.prev;
 			if(prev == null) break;
 			remaining -= node.size;
 			node = prev;
+			hops++;
 		}
+		walked(offset, hops);
 		return new NodeResult<>(node, node.size - remaining);
 	}
 	
+	private NodeResult<T> indexWalk(int offset){
+		var entry     = indexRoot;
+		int remaining = offset;
+		int hops      = 0;
+		while(entry instanceof IndexBranch b){
+			hops++;
+			var left = b.left;
+			var lc   = left.count();
+			if(remaining<lc){
+				entry = left;
+			}else{
+				remaining -= lc;
+				entry = b.right;
+			}
+		}
+		walked(offset, hops);
+		//noinspection unchecked
+		return new NodeResult<>((Node)entry, remaining);
+	}
+	
+	private void walked(int offset, int hops){
+		if(STATS){
+			walks.increment();
+			walkHops.add(hops);
+		}
+		if(hops>=StructureEvents.SLOW_WALK_HOPS){
+			var event = new StructureEvents.SlowWalk();
+			if(event.isEnabled()){
+				event.offset = offset;
+				event.hops = hops;
+				event.size = size;
+				event.indexed = indexed;
+				event.commit();
+			}
+		}
+	}
+	
+	private void split(int nodeSize, int moved, int nextSize, boolean newNode){
+		if(STATS) expands++;
+		var event = new StructureEvents.NodeSplit();
+		if(event.isEnabled()){
+			event.nodeSize = nodeSize;
+			event.moved = moved;
+			event.nextSize = nextSize;
+			event.newNode = newNode;
+			event.commit();
+		}
+	}
+	private void merged(int moved, int survivorSize, boolean spread){
+		if(STATS) defrags++;
+		var event = new StructureEvents.NodeMerge();
+		if(event.isEnabled()){
+			event.moved = moved;
+			event.survivorSize = survivorSize;
+			event.spread = spread;
+			event.commit();
+		}
+	}
+	private void transferred(int moved, boolean toNext){
+		if(STATS) transfers++;
+		var event = new StructureEvents.NeighbourTransfer();
+		if(event.isEnabled()){
+			event.moved = moved;
+			event.toNext = toNext;
+			event.commit();
+		}
+	}
+	
+	private void indexInsertAfter(Node node, Node toAdd){
+		indexInsert(node, toAdd, false);
+	}
+	private void indexInsertBefore(Node node, Node toAdd){
+		indexInsert(node, toAdd, true);
+	}
+	private void indexInsert(Node node, Node toAdd, boolean before){
+		var parent = node.parent;
+		var branch = before? new IndexBranch(toAdd, node) : new IndexBranch(node, toAdd);
+		if(parent == null) indexRoot = branch;
+		else parent.replace(node, branch);
+		
+		var added = toAdd.size;
+		for(var p = parent; p != null; p = p.parent){
+			p.count += added;
+			p.leaves++;
+		}
+		indexRebalance(parent);
+	}
+	
+	private void indexRemove(Node node){
+		var parent = node.parent;
+		if(parent == null){
+			indexRoot = null;
+			return;
+		}
+		node.parent = null;
+		
+		var sibling = parent.left == node? parent.right : parent.left;
+		var gParent = parent.parent;
+		if(gParent == null){
+			indexRoot = sibling;
+			sibling.parent = null;
+		}else gParent.replace(parent, sibling);
+		
+		var removed = node.size;
+		for(var p = gParent; p != null; p = p.parent){
+			p.count -= removed;
+			p.leaves--;
+		}
+		indexRebalance(gParent);
+	}
+	
+	/**
+	 * Finds the topmost unbalanced branch on the path to the root and rebuilds it. Rebuilds are amortized by the
+	 * number of changes needed to unbalance a subtree of that size.
+	 */
+	private void indexRebalance(IndexBranch from){
+		IndexBranch worst = null;
+		for(var p = from; p != null; p = p.parent){
+			if(p.unbalanced()) worst = p;
+		}
+		if(worst == null) return;
+		
+		IndexEntry first = worst;
+		while(first instanceof IndexBranch b) first = b.left;
+		
+		var nodes = new IndexEntry[worst.leaves];
+		//noinspection unchecked
+		var n = (Node)first;
+		for(int i = 0; i<nodes.length; i++){
+			nodes[i] = n;
+			n = n.next;
+		}
+		
+		var parent  = worst.parent;
+		var rebuilt = indexBuild(nodes, 0, nodes.length);
+		if(parent == null){
+			indexRoot = rebuilt;
+			rebuilt.parent = null;
+		}else parent.replace(worst, rebuilt);
+	}
+	
+	private IndexEntry indexBuild(IndexEntry[] nodes, int from, int to){
+		var count = to - from;
+		if(count == 1) return nodes[from];
+		var mid = from + count/2;
+		return new IndexBranch(indexBuild(nodes, from, mid), indexBuild(nodes, mid, to));
+	}
+	
+	private void indexRebuild(){
+		int count = 0;
+		for(var ignored : new NodeForward<>(head)){
+			count++;
+		}
+		var nodes = new IndexEntry[count];
+		int i     = 0;
+		for(var node : new NodeForward<>(head)){
+			node.parent = null;
+			nodes[i++] = node;
+		}
+		indexRoot = indexBuild(nodes, 0, count);
+		indexRoot.parent = null;
+	}
+	
 	@Override
 	public Iterator<T> iterator(){ return new UnrolledIterator(0); }
 	@Override
 	public UnrolledListIterator listIterator(int index){ return new UnrolledListIterator(index); }
 	@Override
 	public Spliterator<T> spliterator(){ return new UnrolledSpliterator<>(this); }
+	/**
+	 * Starts at the tail, so it does not walk the list
+	 */
+	@Override
+	public Iterator<T> descendingIterator(){
+		var iter = listIterator(size);
+		return new Iterator<>(){
+			@Override
+			public boolean hasNext(){ return iter.hasPrevious(); }
+			@Override
+			public T next(){ return iter.previous(); }
+			@Override
+			public void remove(){ iter.remove(); }
+		};
+	}
+	
+	/**
+	 * Reverse ordered view of this list. Index i of the view is index size - 1 - i of this list and the ends of the deque
+	 * are swapped.
+	 */
+	@Override
+	public ListDeque<T> reversed(){
+		return new ReversedView();
+	}
+	
+	private final class ReversedView extends AbstractList<T> implements ListDeque<T>{
+		
+		private int flip(int index){
+			return size - 1 - index;
+		}
+		
+		@Override
+		public T get(int index){
+			Objects.checkIndex(index, size);
+			return UnrolledLinkedList.this.get(flip(index));
+		}
+		@Override
+		public T set(int index, T element){
+			Objects.checkIndex(index, size);
+			return UnrolledLinkedList.this.set(flip(index), element);
+		}
+		@Override
+		public void add(int index, T element){
+			Objects.checkIndex(index, size + 1);
+			UnrolledLinkedList.this.add(size - index, element);
+		}
+		@Override
+		public T remove(int index){
+			Objects.checkIndex(index, size);
+			return UnrolledLinkedList.this.remove(flip(index));
+		}
+		@Override
+		public int size(){
+			return size;
+		}
+		@Override
+		public void clear(){
+			UnrolledLinkedList.this.clear();
+		}
+		@Override
+		public Iterator<T> iterator(){
+			return UnrolledLinkedList.this.descendingIterator();
+		}
+		@Override
+		public Iterator<T> descendingIterator(){
+			return UnrolledLinkedList.this.iterator();
+		}
+		@Override
+		public ListDeque<T> reversed(){
+			return UnrolledLinkedList.this;
+		}
+		
+		@Override
+		public boolean add(T t){
+			addFirst(t);
+			return true;
+		}
+		@Override
+		public void addFirst(T t){ UnrolledLinkedList.this.addLast(t); }
+		@Override
+		public void addLast(T t){ UnrolledLinkedList.this.addFirst(t); }
+		@Override
+		public boolean offerFirst(T t){ return UnrolledLinkedList.this.offerLast(t); }
+		@Override
+		public boolean offerLast(T t){ return UnrolledLinkedList.this.offerFirst(t); }
+		@Override
+		public T removeFirst(){ return UnrolledLinkedList.this.removeLast(); }
+		@Override
+		public T removeLast(){ return UnrolledLinkedList.this.removeFirst(); }
+		@Override
+		public T pollFirst(){ return UnrolledLinkedList.this.pollLast(); }
+		@Override
+		public T pollLast(){ return UnrolledLinkedList.this.pollFirst(); }
+		@Override
+		public T getFirst(){ return UnrolledLinkedList.this.getLast(); }
+		@Override
+		public T getLast(){ return UnrolledLinkedList.this.getFirst(); }
+		@Override
+		public T peekFirst(){ return UnrolledLinkedList.this.peekLast(); }
+		@Override
+		public T peekLast(){ return UnrolledLinkedList.this.peekFirst(); }
+		@Override
+		public boolean removeFirstOccurrence(Object o){ return UnrolledLinkedList.this.removeLastOccurrence(o); }
+		@Override
+		public boolean removeLastOccurrence(Object o){ return UnrolledLinkedList.this.removeFirstOccurrence(o); }
+		@Override
+		public boolean offer(T t){ return offerLast(t); }
+		@Override
+		public T remove(){ return removeFirst(); }
+		@Override
+		public T poll(){ return pollFirst(); }
+		@Override
+		public T element(){ return getFirst(); }
+		@Override
+		public T peek(){ return peekFirst(); }
+		@Override
+		public void push(T t){ addFirst(t); }
+		@Override
+		public T pop(){ return removeFirst(); }
+	}
+	
+	/**
+	 * Returns a view that resolves its first node once and walks from there, so paging through a window costs one
+	 * lookup plus the window itself instead of a lookup per element. Views can be nested.
+	 */
+	@Override
+	public List<T> subList(int fromIndex, int toIndex){
+		Objects.checkFromToIndex(fromIndex, toIndex, size);
+		return new SubList(null, fromIndex, toIndex - fromIndex);
+	}
 	
 	@Override
 	public String toString(){
@@ -718,6 +2706,40 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 		return rest.toString();
 	}
 	
+	/**
+	 * Walks the node chain to collect its layout. This is O(node count) and does not modify the list.
+	 */
+	public Stats stats(){
+		var  histogram = new int[FILL_BUCKETS];
+		int  nodes     = 0;
+		long capacity  = 0, bytes = LIST_BYTES;
+		var  fillSum   = 0D;
+		for(var node : new NodeForward<>(head)){
+			var len  = node.arr.length;
+			var fill = node.size/(double)len;
+			nodes++;
+			capacity += len;
+			fillSum += fill;
+			histogram[Math.min(FILL_BUCKETS - 1, (int)(fill*FILL_BUCKETS))]++;
+			bytes += NODE_BYTES + arrayBytes(len);
+		}
+		if(indexed && nodes>1) bytes += (nodes - 1L)*BRANCH_BYTES;
+		var pool = arrayPool;
+		if(pool != null){
+			bytes += arrayBytes(pool.length);
+			for(int i = 0; i<pooled; i++){
+				bytes += arrayBytes(pool[i].length);
+			}
+		}
+		return new Stats(
+			size, nodes, capacity, nodes == 0? 0 : fillSum/nodes, histogram, capacity - size, bytes,
+			expands, defrags, transfers, STATS? walks.sum() : 0, STATS? walkHops.sum() : 0
+		);
+	}
+	private static long arrayBytes(int length){
+		return (ARRAY_HEADER_BYTES + length*4L + 7)&~7L;
+	}
+	
 	@Override
 	public Object[] toArray(){
 		var r    = new Object[size()];
@@ -747,7 +2769,9 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 	@Override
 	public void replaceAll(UnaryOperator<T> operator){
 		Objects.requireNonNull(operator);
+		prepareWrite();
 		for(var node : new NodeForward<>(head)){
+			node.own();
 			var arr = node.arr;
 			for(int i = node.start, j = i + node.size; i<j; i++){
 				//noinspection unchecked
@@ -758,6 +2782,18 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 	
 	@Override
 	public void sort(Comparator<? super T> c){
+		sort(c, false);
+	}
+	
+	/**
+	 * Same as {@link #sort(Comparator)} but nodes are sorted and independent chunk pairs are merged on the common
+	 * {@link ForkJoinPool}. The comparator needs to be thread safe. Small lists are sorted sequentially.
+	 */
+	public void parallelSort(Comparator<? super T> c){
+		sort(c, size>=PARALLEL_SORT_MIN && ForkJoinPool.getCommonPoolParallelism()>1);
+	}
+	
+	private void sort(Comparator<? super T> c, boolean parallel){
 		final class SortChunk<E>{
 			private final UnrolledLinkedList<E>.Node start;
 			private       E                          last;
@@ -842,18 +2878,36 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 		}
 		
 		
+		prepareWrite();
 		if(head == null) return;
+		var event = new StructureEvents.Sort();
+		event.begin();
 		if(head.next == null){
 			head.sort(c);
+			sorted(event, parallel, 1, 0, 0);
 			return;
 		}
 		
+		if(parallel){
+			int count = 0;
+			for(var ignored : new NodeForward<>(head)){
+				count++;
+			}
+			//noinspection unchecked
+			var nodes = (Node[])Array.newInstance(Node.class, count);
+			int i     = 0;
+			for(var node : new NodeForward<>(head)){
+				nodes[i++] = node;
+			}
+			Arrays.stream(nodes).parallel().forEach(n -> n.sort(c));
+		}
+		
 		//noinspection unchecked
 		var chunks = (SortChunk<T>[])new SortChunk[(int)(size/(double)rollSize*1.5 + 4)];
 		int cPos   = 0;
 		
 		for(var node : new NodeForward<>(head)){
-			node.sort(c);
+			if(!parallel) node.sort(c);
 			if(cPos != 0){
 				var ch = chunks[cPos - 1];
 				if(c.compare(node.get(0), ch.last)>=0){
@@ -876,57 +2930,304 @@ public final class UnrolledLinkedList<T> extends AbstractList<T>{
 		
 		ArrayDeque<T> buffA = new ArrayDeque<>(), buffB = new ArrayDeque<>(1);
 		
+		var mergeStart = event.isEnabled()? System.nanoTime() : 0;
+		int levels     = 0;
+		
 		int       inc = 1;
 		final int s   = cPos;
 		while(inc<s){
-			for(int i = 0, step = inc*2; i + inc<s; i += step){
-				SortChunk<T> l = chunks[i], r = chunks[i + inc];
-				SortChunk.merge(c, buffA, buffB, new SortChunk<>(l.start), l, r);
-				l.size += r.size;
+			levels++;
+			var step = inc*2;
+			if(parallel && s>inc*4){
+				//Pairs of a level cover separate nodes so they can be merged at the same time, each with its own buffers
+				var fChunks = chunks;
+				var fInc    = inc;
+				IntStream.range(0, (s - inc + step - 1)/step).parallel().forEach(p -> {
+					SortChunk<T> l = fChunks[p*step], r = fChunks[p*step + fInc];
+					SortChunk.merge(c, new ArrayDeque<>(), new ArrayDeque<>(1), new SortChunk<>(l.start), l, r);
+					l.size += r.size;
+				});
+			}else{
+				for(int i = 0; i + inc<s; i += step){
+					SortChunk<T> l = chunks[i], r = chunks[i + inc];
+					SortChunk.merge(c, buffA, buffB, new SortChunk<>(l.start), l, r);
+					l.size += r.size;
+				}
 			}
-			inc *= 2;
+			inc = step;
+		}
+		sorted(event, parallel, s, levels, mergeStart);
+	}
+	
+	private void sorted(StructureEvents.Sort event, boolean parallel, int chunks, int levels, long mergeStart){
+		event.end();
+		if(event.shouldCommit()){
+			event.size = size;
+			event.parallel = parallel;
+			event.chunks = chunks;
+			//Every merge joins two chunks in to one
+			event.merges = chunks - 1;
+			event.levels = levels;
+			event.mergeTime = mergeStart == 0? 0 : System.nanoTime() - mergeStart;
+			event.commit();
 		}
 	}
 	
+	/**
+	 * Inserts the value in to a list that is sorted by the comparator so that it remains sorted. Equal elements keep
+	 * their insertion order. Repeated calls patch the search fences instead of rebuilding them, so a run of sorted
+	 * inserts does not walk the node chain.
+	 *
+	 * @return the index the value was inserted at
+	 */
 	public int addRemainSorted(Comparator<? super T> c, T value){
+		var f     = fences;
+		var fresh = f != null && f.stamp == writeStamp && !headersShared;
+		prepareWrite();
 		if(isEmpty()){
 			add(value);
 			return 0;
 		}
+		if(fresh) f.stamp = writeStamp;
+		else f = fences();
 		
-		if(c.compare(value, head.get(0))<0){
-			add(0, value);
-			return 0;
-		}
-		if(c.compare(value, tail.getLast())>0){
-			add(value);
-			return size();
-		}
-		
-		int lo = 0;
-		int hi = size() - 1;
+		var ni    = Math.max(0, f.find(value, c, true) - 1);
+		var node  = f.nodes[ni];
+		var local = node.bound(value, c, true);
+		var index = f.start(ni) + local;
 		
-		var iter = new UnrolledListIterator(0);
+		if(adaptive) writes++;
+		node.add(local, value);
+		size++;
+		finger = null;
+		f.patch(ni);
+		return index;
+	}
+	
+	/**
+	 * Inserts all elements of a collection in to a list that is sorted by the comparator so that it remains sorted. The
+	 * batch is sorted and then merged in one forward pass over the nodes. Nodes that receive nothing are skipped and
+	 * runs that do not fit in to their node are split in to new nodes right after it. Equal elements keep their
+	 * insertion order.
+	 *
+	 * @return true if the list changed
+	 */
+	public boolean addAllRemainSorted(Collection<? extends T> c, Comparator<? super T> comparator){
+		var src = c.toArray();
+		if(src.length == 0) return false;
+		//noinspection unchecked
+		Arrays.sort(src, (Comparator<? super Object>)comparator);
+		if(size == 0){
+			//noinspection unchecked
+			return addAll(0, (Collection<? extends T>)Arrays.asList(src));
+		}
+		prepareWrite();
+		if(adaptive) retarget(size + src.length);
 		
-		while(lo<=hi){
-			int mid = (hi + lo)/2;
+		Object[] buff = null;
+		int      from = 0;
+		for(var node = head; node != null && from<src.length; ){
+			var next = node.next;
 			
-			iter.moveTo(mid);
-			int comp = c.compare(value, iter.get());
-			if(comp<0){
-				hi = mid - 1;
-			}else if(comp>0){
-				lo = mid + 1;
-			}else{
-				iter.node.add(iter.pos, value);
-				size++;
-				return mid;
+			int to;
+			if(next == null) to = src.length;
+			else{
+				//noinspection unchecked
+				var key = (T)next.arr[next.start];
+				//Gallop first, most nodes get few or no new elements
+				int lo = from, hi = from, step = 1;
+				//noinspection unchecked
+				while(hi<src.length && comparator.compare((T)src[hi], key)<0){
+					lo = hi + 1;
+					hi += step;
+					step <<= 1;
+				}
+				hi = Math.min(hi, src.length);
+				while(lo<hi){
+					var mid = (lo + hi)>>>1;
+					//noinspection unchecked
+					if(comparator.compare((T)src[mid], key)>=0) hi = mid;
+					else lo = mid + 1;
+				}
+				to = lo;
 			}
+			
+			if(to>from){
+				var total = node.size + to - from;
+				if(total<=node.arr.length) node.mergeIn(src, from, to, comparator);
+				else{
+					if(buff == null || buff.length<total) buff = new Object[Math.max(total, rollSize*2)];
+					node.mergeSplit(src, from, to, comparator, buff);
+				}
+			}
+			from = to;
+			node = next;
 		}
+		size += src.length;
+		finger = null;
+		return true;
+	}
+	
+	/**
+	 * Searches a list that is sorted by the comparator in O(log n).
+	 *
+	 * @return the index of the first element equal to the key, otherwise {@code -(insertion point) - 1} like
+	 * {@link java.util.Collections#binarySearch(List, Object, Comparator)}
+	 */
+	public int binarySearch(T key, Comparator<? super T> c){
+		return search(key, c, false, true);
+	}
+	/**
+	 * @return the index of the first element that is not less than the key, or size if there is none. The list needs to be
+	 * sorted by the comparator.
+	 */
+	public int lowerBound(T key, Comparator<? super T> c){
+		return search(key, c, false, false);
+	}
+	/**
+	 * @return the index of the first element that is greater than the key, or size if there is none. The list needs to be
+	 * sorted by the comparator.
+	 */
+	public int upperBound(T key, Comparator<? super T> c){
+		return search(key, c, true, false);
+	}
+	/**
+	 * Same as {@link #indexOf(Object)} in O(log n) for a list that is sorted by the comparator. Elements are matched by
+	 * the comparator and not by equals.
+	 */
+	public int sortedIndexOf(T key, Comparator<? super T> c){
+		return Math.max(-1, search(key, c, false, true));
+	}
+	/**
+	 * Same as {@link #contains(Object)} in O(log n) for a list that is sorted by the comparator. Elements are matched by
+	 * the comparator and not by equals.
+	 */
+	public boolean sortedContains(T key, Comparator<? super T> c){
+		return search(key, c, false, true)>=0;
+	}
+	
+	/**
+	 * @return the greatest element that is less than or equal to the key, or null if there is none. The list needs to be
+	 * sorted by the comparator.
+	 */
+	public T floor(T key, Comparator<? super T> c){
+		return neighbour(key, c, true, true);
+	}
+	/**
+	 * @return the least element that is greater than or equal to the key, or null if there is none. The list needs to be
+	 * sorted by the comparator.
+	 */
+	public T ceiling(T key, Comparator<? super T> c){
+		return neighbour(key, c, false, false);
+	}
+	/**
+	 * @return the least element that is strictly greater than the key, or null if there is none. The list needs to be
+	 * sorted by the comparator.
+	 */
+	public T higher(T key, Comparator<? super T> c){
+		return neighbour(key, c, true, false);
+	}
+	/**
+	 * @return the greatest element that is strictly less than the key, or null if there is none. The list needs to be
+	 * sorted by the comparator.
+	 */
+	public T lower(T key, Comparator<? super T> c){
+		return neighbour(key, c, false, true);
+	}
+	
+	/**
+	 * View of the elements that are less than the key. The bounds are resolved once, the view is a {@link #subList} over
+	 * that index range. The list needs to be sorted by the comparator.
+	 */
+	public List<T> headList(T toKey, Comparator<? super T> c){
+		return headList(toKey, false, c);
+	}
+	/**
+	 * View of the elements that are less than (or equal to, if inclusive) the key. See {@link #headList(Object, Comparator)}
+	 */
+	public List<T> headList(T toKey, boolean inclusive, Comparator<? super T> c){
+		return subList(0, search(toKey, c, inclusive, false));
+	}
+	/**
+	 * View of the elements that are greater than or equal to the key. The bounds are resolved once, the view is a
+	 * {@link #subList} over that index range. The list needs to be sorted by the comparator.
+	 */
+	public List<T> tailList(T fromKey, Comparator<? super T> c){
+		return tailList(fromKey, true, c);
+	}
+	/**
+	 * View of the elements that are greater than (or equal to, if inclusive) the key. See
+	 * {@link #tailList(Object, Comparator)}
+	 */
+	public List<T> tailList(T fromKey, boolean inclusive, Comparator<? super T> c){
+		return subList(search(fromKey, c, !inclusive, false), size);
+	}
+	/**
+	 * View of the elements in the key range [fromKey, toKey). The bounds are resolved once, the view is a {@link #subList}
+	 * over that index range. The list needs to be sorted by the comparator.
+	 */
+	public List<T> subRange(T fromKey, T toKey, Comparator<? super T> c){
+		return subRange(fromKey, true, toKey, false, c);
+	}
+	/**
+	 * See {@link #subRange(Object, Object, Comparator)}
+	 */
+	public List<T> subRange(T fromKey, boolean fromInclusive, T toKey, boolean toInclusive, Comparator<? super T> c){
+		if(c.compare(fromKey, toKey)>0) throw new IllegalArgumentException("fromKey > toKey");
+		var from = search(fromKey, c, !fromInclusive, false);
+		var to   = search(toKey, c, toInclusive, false);
+		return subList(from, Math.max(from, to));
+	}
+	
+	/**
+	 * The element at the search bound or the one right before it
+	 */
+	@SuppressWarnings("unchecked")
+	private T neighbour(T key, Comparator<? super T> c, boolean upper, boolean before){
+		Objects.requireNonNull(c);
+		var f = fences();
+		if(f.count == 0) return null;
 		
-		iter.moveTo(lo);
-		iter.node.add(iter.pos, value);
-		size++;
-		return lo;
+		var ni    = Math.max(0, f.find(key, c, upper) - 1);
+		var node  = f.nodes[ni];
+		var local = node.bound(key, c, upper);
+		//The node is the one before the first node that is past the bound, so only the very first node can have no
+		//elements before the bound
+		if(before) return local>0? (T)node.arr[node.start + local - 1] : null;
+		if(local<node.size) return (T)node.arr[node.start + local];
+		return ni + 1<f.count? (T)f.keys[ni + 1] : null;
+	}
+	
+	private Fences fences(){
+		var f = fences;
+		if(f == null){
+			f = new Fences();
+			f.rebuild();
+			fences = f;
+		}else if(!frozen && f.stamp != writeStamp){
+			f.rebuild();
+		}
+		return f;
+	}
+	
+	private int search(T key, Comparator<? super T> c, boolean upper, boolean match){
+		Objects.requireNonNull(c);
+		var f = fences();
+		if(f.count == 0) return match? -1 : 0;
+		
+		var ni    = Math.max(0, f.find(key, c, upper) - 1);
+		var node  = f.nodes[ni];
+		var local = node.bound(key, c, upper);
+		var start = f.start(ni);
+		if(!frozen) finger = new Finger<>(node, start);
+		
+		var index = start + local;
+		if(!match) return index;
+		if(index<size){
+			var at = local<node.size? node.arr[node.start + local] : f.keys[ni + 1];
+			//noinspection unchecked
+			if(c.compare((T)at, key) == 0) return index;
+		}
+		return -index - 1;
 	}
 }
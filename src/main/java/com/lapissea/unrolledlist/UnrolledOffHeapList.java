@@ -0,0 +1,557 @@
+package com.lapissea.unrolledlist;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.MemorySession;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Version of {@link UnrolledLinkedList} that keeps its elements off heap. Every element is a fixed size block of bytes,
+ * this can be a single primitive or a struct with multiple fields. Node storage is carved from larger native slabs
+ * owned by a {@link MemorySession}, so the elements add nothing to GC scanning. {@link #clear()} and {@link #close()}
+ * release all native memory at once.
+ * <p>
+ * Segments returned by {@link #get(int)} are views of the list storage and are only valid until the next structural
+ * change.
+ * <p>
+ * The storage is not confined to the thread that created the list, so it can be handed over to or shared with other
+ * threads. Like {@link UnrolledLinkedList} it is not synchronized, concurrent access needs to be locked externally.
+ * Closing a shared session is slower than a confined one, which makes {@link #clear()} and {@link #close()} more
+ * expensive.
+ */
+public final class UnrolledOffHeapList implements AutoCloseable{
+	
+	private static final ValueLayout.OfInt    INT    = ValueLayout.JAVA_INT.withBitAlignment(8);
+	private static final ValueLayout.OfLong   LONG   = ValueLayout.JAVA_LONG.withBitAlignment(8);
+	private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE.withBitAlignment(8);
+	
+	private static final int SLAB_NODES = 64;
+	
+	private record StructureChange(UnrolledOffHeapList.Node newNode, int delta){ }
+	
+	private record NodeResult(UnrolledOffHeapList.Node node, int localPos){ }
+	
+	private final class Node{
+		private final MemorySegment seg;
+		private       int           start;
+		private       int           size;
+		
+		private Node next;
+		private Node prev;
+		
+		public Node(MemorySegment seg){
+			this.seg = seg;
+		}
+		
+		private long offset(int localPos){
+			Objects.checkIndex(localPos, size);
+			return (long)(start + localPos)*elementSize;
+		}
+		
+		private void write(int truePos, MemorySegment element){
+			MemorySegment.copy(element, 0, seg, (long)truePos*elementSize, elementSize);
+		}
+		
+		private void add(int localPos, MemorySegment element){
+			var lSize = size;
+			Objects.checkIndex(localPos, lSize + 1);
+			var lStart = start;
+			
+			//Insert and consume start space
+			if(lStart>0 && localPos<size/2){
+				var lStartM1 = lStart - 1;
+				if(localPos>0){
+					move(seg, lStart, seg, lStartM1, localPos);
+				}
+				write(lStartM1 + localPos, element);
+				start = lStartM1;
+				size = lSize + 1;
+				return;
+			}
+			
+			if(lSize == rollSize){
+				//Totally full, try pushing in to neighbour (position threshold is biased towards prev to passively pack data)
+				if(localPos<=lSize/2){
+					if(addByPrevTransfer(localPos, element)) return;
+				}
+				if(localPos>=lSize*3/4){
+					if(addByNextTransfer(localPos, element)) return;
+				}
+				//Totally full and expand node space by allocating and splitting data
+				if(expand(localPos)){
+					next.add(localPos - size, element);
+					return;
+				}
+				lSize = size;
+			}
+			
+			var truePos  = lStart + localPos;
+			var trueSize = lStart + lSize;
+			
+			//End space is full but there is space at start, move to 0
+			if(lStart>0 && trueSize>=rollSize){
+				move(seg, lStart, seg, 0, lSize);
+				start = 0;
+				trueSize = lSize;
+				truePos = localPos;
+			}
+			
+			if(trueSize>truePos){
+				move(seg, truePos, seg, truePos + 1, trueSize - truePos);
+			}
+			write(truePos, element);
+			size = lSize + 1;
+		}
+		
+		private boolean addByNextTransfer(int localPos, MemorySegment element){
+			var lNext = next;
+			if(lNext == null || lNext.full()) return false;
+			
+			var lSize     = size;
+			var nextStart = lNext.start;
+			var toMove    = lSize - localPos;
+			
+			if(nextStart<toMove) return false;
+			if(localPos == lSize){
+				lNext.add(0, element);
+				return true;
+			}
+			
+			var trueSize = start + lSize;
+			move(seg, trueSize - toMove, lNext.seg, nextStart - toMove, toMove);
+			write(localPos, element);
+			size -= toMove - 1;
+			lNext.start -= toMove;
+			lNext.size += toMove;
+			return true;
+		}
+		
+		private boolean addByPrevTransfer(int localPos, MemorySegment element){
+			var lPrev = prev;
+			if(lPrev == null) return false;
+			
+			var prevEnd = lPrev.size + lPrev.start;
+			
+			if(prevEnd + localPos>rollSize) return false;
+			if(localPos == 0){
+				lPrev.add(lPrev.size, element);
+				return true;
+			}
+			
+			move(seg, 0, lPrev.seg, prevEnd, localPos);
+			var prev = localPos - 1;
+			write(prev, element);
+			size -= prev;
+			start += prev;
+			lPrev.size += localPos;
+			return true;
+		}
+		
+		private boolean expand(int localPos){
+			int s;
+			if((s = size) != rollSize) return false;
+			
+			var n = optimalNext();
+			
+			int copyPos   = 0;
+			var available = rollSize - (n.start + n.size);
+			
+			var amount = Math.min(s/4, Math.max(1, available - 1));
+			if(n.size>0){
+				var toMove = Math.max(0, amount - n.start);
+				if(toMove>0){
+					move(n.seg, n.start, n.seg, n.start + toMove, n.size);
+				}
+				copyPos = n.start + toMove - amount;
+			}
+			var trueSize = start + s;
+			move(seg, trueSize - amount, n.seg, copyPos, amount);
+			
+			n.start = copyPos;
+			n.size += amount;
+			size = s -= amount;
+			
+			return localPos>s;
+		}
+		
+		private boolean full(){
+			return size>=rollSize*3/4;
+		}
+		private Node optimalNext(){
+			if(next == null || next.full()){
+				insertNext();
+			}
+			return next;
+		}
+		
+		private void insertNext(){
+			var delta1 = new Node(allocateNode());
+			delta1.prev = this;
+			
+			if(next != null){
+				var delta2 = next;
+				delta2.prev = delta1;
+				delta1.next = delta2;
+			}else tail = delta1;
+			next = delta1;
+		}
+		
+		private StructureChange remove(int localPos){
+			var s = size;
+			Objects.checkIndex(localPos, s);
+			int newSize = s - 1;
+			if(localPos<s/2){
+				if(localPos>0){
+					move(seg, start, seg, start + 1, localPos);
+				}
+				start++;
+				size = newSize;
+				if(newSize == 0) start = rollSize/2;
+			}else{
+				if(newSize>localPos){
+					int i = start + localPos;
+					move(seg, i + 1, seg, i, start + newSize - i);
+				}
+				size = newSize;
+			}
+			
+			if(newSize<rollSize/2){
+				if(newSize == 0){
+					removeSelf();
+					if(next == null){
+						if(prev == null) return null;
+						return new StructureChange(prev, prev.size);
+					}
+					return new StructureChange(next, 0);
+				}
+				return defrag();
+			}
+			
+			return null;
+		}
+		
+		private StructureChange defrag(){
+			int siz   = size;
+			var lPrev = prev;
+			var lNext = next;
+			
+			if(lPrev != null){
+				int off;
+				if(siz + (off = lPrev.size + lPrev.start)<=rollSize){
+					move(seg, start, lPrev.seg, off, siz);
+					var olSiz = lPrev.size;
+					lPrev.size += siz;
+					removeSelf();
+					return new StructureChange(lPrev, olSiz);
+				}
+			}
+			if(lNext != null){
+				int off;
+				if((off = siz + start) + lNext.size<=rollSize){
+					move(lNext.seg, lNext.start, seg, off, lNext.size);
+					size += lNext.size;
+					lNext.removeSelf();
+					return new StructureChange(this, 0);
+				}
+			}
+			
+			if(lPrev != null && lNext != null){
+				var prevEnd   = lPrev.size + lPrev.start;
+				var nextStart = lNext.start;
+				
+				var prevToAdd = rollSize - prevEnd;
+				var nextToAdd = nextStart;
+				
+				var remaining = siz - prevToAdd - nextToAdd;
+				if(remaining>0) return null;
+				if(remaining<0){
+					nextToAdd += remaining;
+				}
+				if(nextToAdd<=0) throw new IllegalStateException();
+				
+				var olSiz = lPrev.size;
+				
+				move(seg, start, lPrev.seg, prevEnd, prevToAdd);
+				lPrev.size += prevToAdd;
+				
+				move(seg, start + prevToAdd, lNext.seg, nextStart - nextToAdd, nextToAdd);
+				lNext.start -= nextToAdd;
+				lNext.size += nextToAdd;
+				
+				removeSelf();
+				return new StructureChange(lPrev, olSiz);
+			}
+			
+			return null;
+		}
+		
+		private void removeSelf(){
+			if(prev != null) prev.next = next;
+			else head = next;
+			if(next != null) next.prev = prev;
+			else tail = prev;
+			size = -1;
+			freeNodes.push(seg);
+		}
+	}
+	
+	private final int elementSize;
+	private final int rollSize;
+	private final int nodeBytes;
+	
+	private       MemorySession            session;
+	private final ArrayDeque<MemorySegment> freeNodes = new ArrayDeque<>();
+	private       MemorySegment            slab;
+	private       int                      slabPos;
+	private       MemorySegment            scratch;
+	
+	private int  size;
+	private Node head, tail;
+	
+	/**
+	 * @param elementSize size of a single element in bytes
+	 */
+	public UnrolledOffHeapList(int elementSize){
+		this(elementSize, 64);
+	}
+	public UnrolledOffHeapList(int elementSize, int rollSize){
+		if(elementSize<=0) throw new IllegalArgumentException("elementSize must be positive");
+		if(rollSize<4) throw new IllegalArgumentException("rollSize must be at least 4");
+		this.elementSize = elementSize;
+		this.rollSize = rollSize;
+		nodeBytes = Math.multiplyExact(elementSize, rollSize);
+		openSession();
+	}
+	
+	private void openSession(){
+		session = MemorySession.openShared();
+		scratch = MemorySegment.allocateNative(elementSize, 8, session);
+		slab = null;
+		freeNodes.clear();
+	}
+	
+	private MemorySegment allocateNode(){
+		var free = freeNodes.poll();
+		if(free != null) return free;
+		
+		if(slab == null || slabPos == SLAB_NODES){
+			slab = MemorySegment.allocateNative((long)nodeBytes*SLAB_NODES, 8, session);
+			slabPos = 0;
+		}
+		return slab.asSlice((long)nodeBytes*slabPos++, nodeBytes);
+	}
+	
+	private void move(MemorySegment src, int srcPos, MemorySegment dst, int dstPos, int count){
+		MemorySegment.copy(src, (long)srcPos*elementSize, dst, (long)dstPos*elementSize, (long)count*elementSize);
+	}
+	
+	private void checkElement(MemorySegment element){
+		if(element.byteSize() != elementSize){
+			throw new IllegalArgumentException("Element is " + element.byteSize() + " bytes but the list stores " + elementSize);
+		}
+	}
+	private void checkField(long fieldOffset, int fieldSize){
+		Objects.checkFromIndexSize(fieldOffset, fieldSize, elementSize);
+	}
+	
+	public int elementSize(){
+		return elementSize;
+	}
+	
+	public int size(){
+		return size;
+	}
+	public boolean isEmpty(){
+		return size == 0;
+	}
+	
+	/**
+	 * @return a view of the element. Valid until the next structural change of the list.
+	 */
+	public MemorySegment get(int index){
+		Objects.checkIndex(index, size);
+		var res = nodeWalk(index);
+		return res.node.seg.asSlice(res.node.offset(res.localPos), elementSize);
+	}
+	
+	public void copyTo(int index, MemorySegment dest){
+		Objects.checkIndex(index, size);
+		var res = nodeWalk(index);
+		MemorySegment.copy(res.node.seg, res.node.offset(res.localPos), dest, 0, elementSize);
+	}
+	
+	public void set(int index, MemorySegment element){
+		checkElement(element);
+		Objects.checkIndex(index, size);
+		var res = nodeWalk(index);
+		MemorySegment.copy(element, 0, res.node.seg, res.node.offset(res.localPos), elementSize);
+	}
+	
+	public void add(MemorySegment element){
+		add(size, element);
+	}
+	
+	public void add(int index, MemorySegment element){
+		checkElement(element);
+		Objects.checkIndex(index, size + 1);
+		if(tail == null) makeFirst();
+		//The element can be a view in to this list, like one from get, and the insert shifts the memory under it
+		if(element != scratch) MemorySegment.copy(element, 0, scratch, 0, elementSize);
+		var res = nodeWalk(index);
+		res.node.add(res.localPos, scratch);
+		size++;
+	}
+	
+	public void remove(int index){
+		Objects.checkIndex(index, size);
+		var res = nodeWalk(index);
+		res.node.remove(res.localPos);
+		size--;
+	}
+	
+	public int getInt(int index, long fieldOffset){
+		checkField(fieldOffset, 4);
+		Objects.checkIndex(index, size);
+		var res = nodeWalk(index);
+		return res.node.seg.get(INT, res.node.offset(res.localPos) + fieldOffset);
+	}
+	public void setInt(int index, long fieldOffset, int value){
+		checkField(fieldOffset, 4);
+		Objects.checkIndex(index, size);
+		var res = nodeWalk(index);
+		res.node.seg.set(INT, res.node.offset(res.localPos) + fieldOffset, value);
+	}
+	
+	public long getLong(int index, long fieldOffset){
+		checkField(fieldOffset, 8);
+		Objects.checkIndex(index, size);
+		var res = nodeWalk(index);
+		return res.node.seg.get(LONG, res.node.offset(res.localPos) + fieldOffset);
+	}
+	public void setLong(int index, long fieldOffset, long value){
+		checkField(fieldOffset, 8);
+		Objects.checkIndex(index, size);
+		var res = nodeWalk(index);
+		res.node.seg.set(LONG, res.node.offset(res.localPos) + fieldOffset, value);
+	}
+	
+	public double getDouble(int index, long fieldOffset){
+		checkField(fieldOffset, 8);
+		Objects.checkIndex(index, size);
+		var res = nodeWalk(index);
+		return res.node.seg.get(DOUBLE, res.node.offset(res.localPos) + fieldOffset);
+	}
+	public void setDouble(int index, long fieldOffset, double value){
+		checkField(fieldOffset, 8);
+		Objects.checkIndex(index, size);
+		var res = nodeWalk(index);
+		res.node.seg.set(DOUBLE, res.node.offset(res.localPos) + fieldOffset, value);
+	}
+	
+	/**
+	 * Shorthand for lists of single longs
+	 */
+	public long getLong(int index){
+		return getLong(index, 0);
+	}
+	
+	/**
+	 * Appends an element that has the value at its start and the rest of its bytes zeroed
+	 */
+	public void addLong(long value){
+		addLong(size, value);
+	}
+	public void addLong(int index, long value){
+		checkField(0, 8);
+		scratch.fill((byte)0);
+		scratch.set(LONG, 0, value);
+		add(index, scratch);
+	}
+	
+	public void forEach(Consumer<MemorySegment> action){
+		Objects.requireNonNull(action);
+		for(var node = head; node != null; node = node.next){
+			for(int i = 0; i<node.size; i++){
+				action.accept(node.seg.asSlice(node.offset(i), elementSize));
+			}
+		}
+	}
+	
+	public void forEachLong(long fieldOffset, LongConsumer action){
+		checkField(fieldOffset, 8);
+		Objects.requireNonNull(action);
+		for(var node = head; node != null; node = node.next){
+			var seg = node.seg;
+			for(long off = (long)node.start*elementSize + fieldOffset, end = off + (long)node.size*elementSize; off<end; off += elementSize){
+				action.accept(seg.get(LONG, off));
+			}
+		}
+	}
+	
+	/**
+	 * Removes all elements and releases all native memory of the list. The list can be used again afterwards.
+	 */
+	public void clear(){
+		size = 0;
+		tail = head = null;
+		session.close();
+		openSession();
+	}
+	
+	/**
+	 * Releases all native memory. The list can not be used afterwards.
+	 */
+	@Override
+	public void close(){
+		size = 0;
+		tail = head = null;
+		freeNodes.clear();
+		slab = null;
+		scratch = null;
+		session.close();
+	}
+	
+	private void makeFirst(){
+		tail = head = new Node(allocateNode());
+	}
+	
+	private NodeResult nodeWalk(int offset){
+		if(offset>size>>1){
+			return walkBackwards(offset, tail, size);
+		}
+		return walkForwards(offset, head, 0);
+	}
+	
+	private NodeResult walkForwards(int offset, Node start, int startPos){
+		Node node      = start;
+		int  remaining = offset - startPos;
+		while(remaining>=node.size){
+			var next = node.next;
+			if(next == null) break;
+			remaining -= node.size;
+			node = next;
+		}
+		return new NodeResult(node, remaining);
+	}
+	
+	private NodeResult walkBackwards(int offset, Node start, int startPos){
+		Node node      = start;
+		int  remaining = startPos - offset;
+		while(remaining>node.size){
+			var prev = node.prev;
+			if(prev == null) break;
+			remaining -= node.size;
+			node = prev;
+		}
+		return new NodeResult(node, node.size - remaining);
+	}
+	
+	@Override
+	public String toString(){
+		return "UnrolledOffHeapList{size=" + size + ", elementSize=" + elementSize + "}";
+	}
+}
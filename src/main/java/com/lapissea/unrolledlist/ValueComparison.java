@@ -0,0 +1,32 @@
+package com.lapissea.unrolledlist;
+
+/**
+ * Comparison of an element against a value, as in {@code element op value}. Used by the primitive lists to count
+ * elements with a test that can be vectorized. Doubles are compared with the primitive operators, so NaN only
+ * matches {@link #NE}.
+ */
+public enum ValueComparison{
+	EQ, NE, LT, LE, GT, GE;
+	
+	public boolean test(long element, long value){
+		return switch(this){
+			case EQ -> element == value;
+			case NE -> element != value;
+			case LT -> element<value;
+			case LE -> element<=value;
+			case GT -> element>value;
+			case GE -> element>=value;
+		};
+	}
+	
+	public boolean test(double element, double value){
+		return switch(this){
+			case EQ -> element == value;
+			case NE -> element != value;
+			case LT -> element<value;
+			case LE -> element<=value;
+			case GT -> element>value;
+			case GE -> element>=value;
+		};
+	}
+}
@@ -0,0 +1,231 @@
+package com.lapissea.unrolledlist;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API versions of the {@link ArrayScans}. This class is only loaded when the incubator module is present. Every
+ * kernel finishes the part of the range that does not fill a whole vector with a scalar loop.
+ */
+final class VectorKernels{
+	
+	private static final VectorSpecies<Integer> INT    = IntVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Long>    LONG   = LongVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Double>  DOUBLE = DoubleVector.SPECIES_PREFERRED;
+	
+	private VectorKernels(){ }
+	
+	private static VectorOperators.Comparison op(ValueComparison op){
+		return switch(op){
+			case EQ -> VectorOperators.EQ;
+			case NE -> VectorOperators.NE;
+			case LT -> VectorOperators.LT;
+			case LE -> VectorOperators.LE;
+			case GT -> VectorOperators.GT;
+			case GE -> VectorOperators.GE;
+		};
+	}
+	
+	static int indexOf(int[] arr, int from, int to, int value){
+		int i = from;
+		for(var bound = from + INT.loopBound(to - from); i<bound; i += INT.length()){
+			var m = IntVector.fromArray(INT, arr, i).eq(value);
+			if(m.anyTrue()) return i + m.firstTrue();
+		}
+		for(; i<to; i++){
+			if(arr[i] == value) return i;
+		}
+		return -1;
+	}
+	static int lastIndexOf(int[] arr, int from, int to, int value){
+		var vecEnd = from + INT.loopBound(to - from);
+		for(int i = to - 1; i>=vecEnd; i--){
+			if(arr[i] == value) return i;
+		}
+		for(int i = vecEnd - INT.length(); i>=from; i -= INT.length()){
+			var m = IntVector.fromArray(INT, arr, i).eq(value);
+			if(m.anyTrue()) return i + m.lastTrue();
+		}
+		return -1;
+	}
+	static int count(int[] arr, int from, int to, ValueComparison op, int value){
+		var vOp   = op(op);
+		int count = 0, i = from;
+		for(var bound = from + INT.loopBound(to - from); i<bound; i += INT.length()){
+			count += IntVector.fromArray(INT, arr, i).compare(vOp, value).trueCount();
+		}
+		for(; i<to; i++){
+			if(op.test(arr[i], value)) count++;
+		}
+		return count;
+	}
+	static int sum(int[] arr, int from, int to){
+		var acc = IntVector.zero(INT);
+		int i   = from;
+		for(var bound = from + INT.loopBound(to - from); i<bound; i += INT.length()){
+			acc = acc.add(IntVector.fromArray(INT, arr, i));
+		}
+		var sum = acc.reduceLanes(VectorOperators.ADD);
+		for(; i<to; i++) sum += arr[i];
+		return sum;
+	}
+	static int min(int[] arr, int from, int to){
+		var acc = IntVector.broadcast(INT, Integer.MAX_VALUE);
+		int i   = from;
+		for(var bound = from + INT.loopBound(to - from); i<bound; i += INT.length()){
+			acc = acc.min(IntVector.fromArray(INT, arr, i));
+		}
+		var min = acc.reduceLanes(VectorOperators.MIN);
+		for(; i<to; i++) min = Math.min(min, arr[i]);
+		return min;
+	}
+	static int max(int[] arr, int from, int to){
+		var acc = IntVector.broadcast(INT, Integer.MIN_VALUE);
+		int i   = from;
+		for(var bound = from + INT.loopBound(to - from); i<bound; i += INT.length()){
+			acc = acc.max(IntVector.fromArray(INT, arr, i));
+		}
+		var max = acc.reduceLanes(VectorOperators.MAX);
+		for(; i<to; i++) max = Math.max(max, arr[i]);
+		return max;
+	}
+	
+	static int indexOf(long[] arr, int from, int to, long value){
+		int i = from;
+		for(var bound = from + LONG.loopBound(to - from); i<bound; i += LONG.length()){
+			var m = LongVector.fromArray(LONG, arr, i).eq(value);
+			if(m.anyTrue()) return i + m.firstTrue();
+		}
+		for(; i<to; i++){
+			if(arr[i] == value) return i;
+		}
+		return -1;
+	}
+	static int lastIndexOf(long[] arr, int from, int to, long value){
+		var vecEnd = from + LONG.loopBound(to - from);
+		for(int i = to - 1; i>=vecEnd; i--){
+			if(arr[i] == value) return i;
+		}
+		for(int i = vecEnd - LONG.length(); i>=from; i -= LONG.length()){
+			var m = LongVector.fromArray(LONG, arr, i).eq(value);
+			if(m.anyTrue()) return i + m.lastTrue();
+		}
+		return -1;
+	}
+	static int count(long[] arr, int from, int to, ValueComparison op, long value){
+		var vOp   = op(op);
+		int count = 0, i = from;
+		for(var bound = from + LONG.loopBound(to - from); i<bound; i += LONG.length()){
+			count += LongVector.fromArray(LONG, arr, i).compare(vOp, value).trueCount();
+		}
+		for(; i<to; i++){
+			if(op.test(arr[i], value)) count++;
+		}
+		return count;
+	}
+	static long sum(long[] arr, int from, int to){
+		var acc = LongVector.zero(LONG);
+		int i   = from;
+		for(var bound = from + LONG.loopBound(to - from); i<bound; i += LONG.length()){
+			acc = acc.add(LongVector.fromArray(LONG, arr, i));
+		}
+		var sum = acc.reduceLanes(VectorOperators.ADD);
+		for(; i<to; i++) sum += arr[i];
+		return sum;
+	}
+	static long min(long[] arr, int from, int to){
+		var acc = LongVector.broadcast(LONG, Long.MAX_VALUE);
+		int i   = from;
+		for(var bound = from + LONG.loopBound(to - from); i<bound; i += LONG.length()){
+			acc = acc.min(LongVector.fromArray(LONG, arr, i));
+		}
+		var min = acc.reduceLanes(VectorOperators.MIN);
+		for(; i<to; i++) min = Math.min(min, arr[i]);
+		return min;
+	}
+	static long max(long[] arr, int from, int to){
+		var acc = LongVector.broadcast(LONG, Long.MIN_VALUE);
+		int i   = from;
+		for(var bound = from + LONG.loopBound(to - from); i<bound; i += LONG.length()){
+			acc = acc.max(LongVector.fromArray(LONG, arr, i));
+		}
+		var max = acc.reduceLanes(VectorOperators.MAX);
+		for(; i<to; i++) max = Math.max(max, arr[i]);
+		return max;
+	}
+	
+	/**
+	 * Matches by bits like {@link Double#compare}, so -0.0 and 0.0 are different. The value can not be NaN.
+	 */
+	static int indexOf(double[] arr, int from, int to, double value){
+		var bits = Double.doubleToRawLongBits(value);
+		int i    = from;
+		for(var bound = from + DOUBLE.loopBound(to - from); i<bound; i += DOUBLE.length()){
+			var m = DoubleVector.fromArray(DOUBLE, arr, i).reinterpretAsLongs().eq(bits);
+			if(m.anyTrue()) return i + m.firstTrue();
+		}
+		for(; i<to; i++){
+			if(Double.compare(arr[i], value) == 0) return i;
+		}
+		return -1;
+	}
+	/**
+	 * Matches by bits like {@link Double#compare}, so -0.0 and 0.0 are different. The value can not be NaN.
+	 */
+	static int lastIndexOf(double[] arr, int from, int to, double value){
+		var bits   = Double.doubleToRawLongBits(value);
+		var vecEnd = from + DOUBLE.loopBound(to - from);
+		for(int i = to - 1; i>=vecEnd; i--){
+			if(Double.compare(arr[i], value) == 0) return i;
+		}
+		for(int i = vecEnd - DOUBLE.length(); i>=from; i -= DOUBLE.length()){
+			var m = DoubleVector.fromArray(DOUBLE, arr, i).reinterpretAsLongs().eq(bits);
+			if(m.anyTrue()) return i + m.lastTrue();
+		}
+		return -1;
+	}
+	static int count(double[] arr, int from, int to, ValueComparison op, double value){
+		var vOp   = op(op);
+		int count = 0, i = from;
+		for(var bound = from + DOUBLE.loopBound(to - from); i<bound; i += DOUBLE.length()){
+			count += DoubleVector.fromArray(DOUBLE, arr, i).compare(vOp, value).trueCount();
+		}
+		for(; i<to; i++){
+			if(op.test(arr[i], value)) count++;
+		}
+		return count;
+	}
+	static double sum(double[] arr, int from, int to){
+		var acc = DoubleVector.zero(DOUBLE);
+		int i   = from;
+		for(var bound = from + DOUBLE.loopBound(to - from); i<bound; i += DOUBLE.length()){
+			acc = acc.add(DoubleVector.fromArray(DOUBLE, arr, i));
+		}
+		var sum = acc.reduceLanes(VectorOperators.ADD);
+		for(; i<to; i++) sum += arr[i];
+		return sum;
+	}
+	static double min(double[] arr, int from, int to){
+		var acc = DoubleVector.broadcast(DOUBLE, Double.POSITIVE_INFINITY);
+		int i   = from;
+		for(var bound = from + DOUBLE.loopBound(to - from); i<bound; i += DOUBLE.length()){
+			acc = acc.min(DoubleVector.fromArray(DOUBLE, arr, i));
+		}
+		var min = acc.reduceLanes(VectorOperators.MIN);
+		for(; i<to; i++) min = Math.min(min, arr[i]);
+		return min;
+	}
+	static double max(double[] arr, int from, int to){
+		var acc = DoubleVector.broadcast(DOUBLE, Double.NEGATIVE_INFINITY);
+		int i   = from;
+		for(var bound = from + DOUBLE.loopBound(to - from); i<bound; i += DOUBLE.length()){
+			acc = acc.max(DoubleVector.fromArray(DOUBLE, arr, i));
+		}
+		var max = acc.reduceLanes(VectorOperators.MAX);
+		for(; i<to; i++) max = Math.max(max, arr[i]);
+		return max;
+	}
+}
@@ -0,0 +1,76 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive node capacity against a range of fixed rollSizes, up to the adaptive maximum of 1024. The list is built with
+ * random position inserts so the adaptive list sees a realistic growth history.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AdaptiveJMH{
+	
+	private static final int OPS = 100;
+	
+	@Param({"Fixed 8", "Fixed 16", "Fixed 32", "Fixed 64", "Fixed 128", "Fixed 256", "Fixed 1024", "Adaptive"})
+	public String _type;
+	@Param({"1000", "100000", "1000000", "10000000"})
+	public int    size;
+	
+	private UnrolledLinkedList<Integer> list;
+	private int[]                       idx;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		var rand = new Random(42);
+		var type = _type.split(" ");
+		list = type[0].equals("Adaptive")? UnrolledLinkedList.adaptive() : new UnrolledLinkedList<>(Integer.parseInt(type[1]));
+		
+		//Start with a random position phase and finish with a bulk load so large sizes build in reasonable time
+		var randomPart = Math.min(size, 100_000);
+		for(int i = 0; i<randomPart; i++){
+			list.add(rand.nextInt(list.size() + 1), i);
+		}
+		if(size>randomPart) list.addAll(rand.ints(size - randomPart).boxed().toList());
+		idx = rand.ints(OPS, 0, size).toArray();
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(OPS)
+	public void get(Blackhole bh){
+		for(int i : idx){
+			bh.consume(list.get(i));
+		}
+	}
+	
+	/**
+	 * Inserts and then removes so the size stays stable between invocations
+	 */
+	@Benchmark
+	@OperationsPerInvocation(OPS*2)
+	public void insertRemove(Blackhole bh){
+		for(int i : idx){
+			list.add(i, i);
+		}
+		for(int i = OPS - 1; i>=0; i--){
+			bh.consume(list.remove(idx[i]));
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AddAllJMH{
+	
+	@Param({"Array", "Unrolled 32", "Indexed 32"})
+	public String _type;
+	@Param({"1000", "100000", "10000000"})
+	public int    size;
+	
+	private List<Integer> source, batch;
+	private List<Integer> list;
+	private int           batchIndex;
+	
+	private List<Integer> create(){
+		var type = _type.split(" ");
+		return switch(type[0]){
+			case "Array" -> new ArrayList<>();
+			case "Unrolled" -> new UnrolledLinkedList<>(Integer.parseInt(type[1]));
+			case "Indexed" -> new UnrolledLinkedList<>(Integer.parseInt(type[1]), true);
+			default -> throw new IllegalArgumentException(_type);
+		};
+	}
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		var rand = new Random(42);
+		source = rand.ints(size).boxed().toList();
+		batch = rand.ints(1000).boxed().toList();
+		batchIndex = size/2;
+		list = create();
+		list.addAll(source);
+	}
+	
+	@Benchmark
+	public Object bulkLoad(){
+		var l = create();
+		l.addAll(source);
+		return l;
+	}
+	
+	/**
+	 * Inserts a batch in the middle and removes it again so the size stays stable between invocations
+	 */
+	@Benchmark
+	public Object midBatchInsert(){
+		list.addAll(batchIndex, batch);
+		list.subList(batchIndex, batchIndex + batch.size()).clear();
+		return list;
+	}
+}
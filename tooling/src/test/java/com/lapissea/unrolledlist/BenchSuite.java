@@ -0,0 +1,29 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+
+/**
+ * Runs the list benchmark suite with the gc profiler, which adds allocation rate and gc counts to every result.
+ * Arguments replace the default benchmark selection and are regexes in the same form as the JMH include option.
+ */
+public class BenchSuite{
+	
+	private static final List<Class<?>> SUITE = List.of(
+		ListOpsJMH.class, SequenceJMH.class, SortedInsertJMH.class, RandomGetJMH.class, SortJMH.class
+	);
+	
+	public static void main(String[] args) throws RunnerException{
+		var opt = new OptionsBuilder().addProfiler(GCProfiler.class);
+		if(args.length == 0){
+			for(var c : SUITE) opt.include(c.getSimpleName());
+		}else{
+			for(var arg : args) opt.include(arg);
+		}
+		new Runner(opt.build()).run();
+	}
+}
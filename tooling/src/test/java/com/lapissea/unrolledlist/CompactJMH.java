@@ -0,0 +1,61 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access after heavy removal. Half of the elements are removed at random positions, which leaves the nodes partly
+ * filled unless the list is compacted, either once at the end or incrementally while removing.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CompactJMH{
+	
+	@Param({"None", "Compact", "Incremental"})
+	public String compaction;
+	@Param({"1000000"})
+	public int    size;
+	
+	private UnrolledLinkedList<Integer> list;
+	private Random                      rand;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		rand = new Random(42);
+		list = new UnrolledLinkedList<>(32);
+		if(compaction.equals("Incremental")) list.setIncrementalCompaction(0.9);
+		list.addAll(rand.ints(size, 0, 1000).boxed().toList());
+		for(int i = 0; i<size/2; i++){
+			list.remove(rand.nextInt(list.size()));
+		}
+		if(compaction.equals("Compact")) list.compact(0.9);
+	}
+	
+	@Benchmark
+	public Integer randomGet(){
+		return list.get(rand.nextInt(list.size()));
+	}
+	
+	@Benchmark
+	public long iterate(){
+		long sum = 0;
+		for(var v : list){
+			sum += v;
+		}
+		return sum;
+	}
+}
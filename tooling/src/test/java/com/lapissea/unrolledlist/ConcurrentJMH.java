@@ -0,0 +1,74 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared list hammered by 8 threads with a mix of reads and size neutral writes (equal parts insert and remove at
+ * random positions). ReadMostly serializes writers, it only pulls ahead as the read percentage goes up.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(8)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentJMH{
+	
+	@Param({"Synchronized", "CopyOnWrite", "ReadMostly"})
+	public String _type;
+	@Param({"1000", "100000"})
+	public int    size;
+	@Param({"50", "90", "99"})
+	public int    readPercent;
+	
+	private List<Integer> list;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		var values = new ArrayList<Integer>(size);
+		for(int i = 0; i<size; i++) values.add(i);
+		list = switch(_type){
+			case "Synchronized" -> Collections.synchronizedList(new UnrolledLinkedList<>(32));
+			case "CopyOnWrite" -> new CopyOnWriteArrayList<>();
+			case "ReadMostly" -> new ReadMostlyUnrolledLinkedList<>(32);
+			default -> throw new IllegalArgumentException(_type);
+		};
+		list.addAll(values);
+	}
+	
+	@Benchmark
+	public Object mixed(){
+		var rand = ThreadLocalRandom.current();
+		try{
+			var op = rand.nextInt(100);
+			if(op<readPercent){
+				return list.get(rand.nextInt(list.size()));
+			}
+			if((op&1) == 0){
+				list.add(rand.nextInt(list.size() + 1), op);
+				return null;
+			}
+			return list.remove(rand.nextInt(list.size()));
+		}catch(IndexOutOfBoundsException e){
+			//The size can change between size() and the positional call
+			return e;
+		}
+	}
+}
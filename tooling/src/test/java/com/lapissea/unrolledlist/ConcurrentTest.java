@@ -0,0 +1,168 @@
+package com.lapissea.unrolledlist;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrentTest{
+	
+	@Test
+	void mixedThreads() throws InterruptedException{
+		var list = new ReadMostlyUnrolledLinkedList<Integer>(8, true);
+		for(int i = 0; i<10_000; i++) list.add(i);
+		
+		var fail    = new AtomicReference<Throwable>();
+		var threads = new ArrayList<Thread>();
+		for(int t = 0; t<8; t++){
+			var id = t;
+			threads.add(Thread.ofPlatform().start(() -> {
+				var rand = ThreadLocalRandom.current();
+				try{
+					for(int i = 0; i<200_000; i++){
+						try{
+							switch(rand.nextInt(4)){
+								case 0 -> list.add(rand.nextInt(list.size() + 1), id*1_000_000 + i);
+								case 1 -> list.remove(rand.nextInt(list.size()));
+								default -> {
+									//Elements are never negative, a torn read would show up as garbage or an exception
+									var val = list.get(rand.nextInt(list.size()));
+									if(val<0) throw new IllegalStateException(val + "");
+								}
+							}
+						}catch(IndexOutOfBoundsException ignored){
+							//size() and the positional call are not atomic together, another thread can change the size in between
+						}
+					}
+				}catch(Throwable e){
+					fail.set(e);
+				}
+			}));
+		}
+		for(var t : threads) t.join();
+		if(fail.get() != null) Assert.fail("Thread failed", fail.get());
+		
+		List<Integer> copy = new ArrayList<>(list);
+		Assert.assertEquals(copy.size(), list.size());
+		Assert.assertEquals(copy, list);
+	}
+	
+	/**
+	 * Plain lists are not written here, so readers only race on the finger. Every element is its own index.
+	 */
+	@Test
+	void readersShareTheFinger() throws InterruptedException{
+		var list = new UnrolledLinkedList<Integer>(32);
+		var ints = new UnrolledIntList(32);
+		for(int i = 0; i<20_000; i++){
+			list.add(i);
+			ints.addInt(i);
+		}
+		var sub = list.subList(1000, 18_000);
+		
+		var fail    = new AtomicReference<Throwable>();
+		var threads = new ArrayList<Thread>();
+		for(int t = 0; t<8; t++){
+			threads.add(Thread.ofPlatform().start(() -> {
+				var rand = ThreadLocalRandom.current();
+				try{
+					for(int i = 0; i<50_000; i++){
+						//Small jumps hit the finger, large ones walk from it or from the ends
+						var idx = rand.nextBoolean()? rand.nextInt(20_000) : Math.min(19_999, i%20_000 + rand.nextInt(20));
+						Assert.assertEquals((int)list.get(idx), idx);
+						Assert.assertEquals(ints.getInt(idx), idx);
+						if(idx<sub.size()) Assert.assertEquals((int)sub.get(idx), idx + 1000);
+					}
+				}catch(Throwable e){
+					fail.set(e);
+				}
+			}));
+		}
+		for(var t : threads) t.join();
+		if(fail.get() != null) Assert.fail("Thread failed", fail.get());
+	}
+	
+	@Test
+	void addsAreNotLost() throws InterruptedException{
+		var list    = new ReadMostlyUnrolledLinkedList<Integer>();
+		var threads = new ArrayList<Thread>();
+		for(int t = 0; t<8; t++){
+			var id = t;
+			threads.add(Thread.ofPlatform().start(() -> {
+				for(int i = 0; i<50_000; i++){
+					list.add(id*50_000 + i);
+				}
+			}));
+		}
+		for(var t : threads) t.join();
+		
+		var sorted = new ArrayList<>(list);
+		Collections.sort(sorted);
+		for(int i = 0; i<sorted.size(); i++){
+			Assert.assertEquals(sorted.get(i), i);
+		}
+		Assert.assertEquals(sorted.size(), 8*50_000);
+	}
+	
+	/**
+	 * equals, hashCode and toString read under the read lock. Comparing two lists both ways at once must not deadlock.
+	 */
+	@Test
+	void crossEquals() throws InterruptedException{
+		var a = new ReadMostlyUnrolledLinkedList<Integer>(8);
+		var b = new ReadMostlyUnrolledLinkedList<Integer>(8);
+		for(int i = 0; i<1000; i++){
+			a.add(i);
+			b.add(i);
+		}
+		Assert.assertEquals(a, b);
+		Assert.assertEquals(a.hashCode(), List.copyOf(b).hashCode());
+		Assert.assertEquals(a.toString(), b.snapshot().toString());
+		Assert.assertTrue(a.containsAll(b));
+		
+		var fail    = new AtomicReference<Throwable>();
+		var threads = new ArrayList<Thread>();
+		for(int t = 0; t<4; t++){
+			var self  = t%2 == 0? a : b;
+			var other = t%2 == 0? b : a;
+			threads.add(Thread.ofPlatform().start(() -> {
+				try{
+					for(int i = 0; i<2000; i++){
+						self.set(i%1000, i%1000);
+						if(!self.equals(other)) throw new IllegalStateException("Lists differ");
+						if(i%100 == 0 && !self.containsAll(other)) throw new IllegalStateException("Element missing");
+					}
+				}catch(Throwable e){
+					fail.set(e);
+				}
+			}));
+		}
+		for(var t : threads){
+			t.join(20_000);
+			Assert.assertFalse(t.isAlive(), "Deadlocked");
+		}
+		if(fail.get() != null) Assert.fail("Thread failed", fail.get());
+	}
+	
+	@Test
+	void snapshotIsReusedUntilWrite(){
+		var list = new ReadMostlyUnrolledLinkedList<Integer>(8);
+		for(int i = 0; i<100; i++) list.add(i);
+		
+		var snap = list.snapshot();
+		for(var ignored : list){ }
+		list.toString();
+		Assert.assertSame(list.snapshot(), snap);
+		
+		list.add(100);
+		var next = list.snapshot();
+		Assert.assertNotSame(next, snap);
+		Assert.assertEquals(snap.size(), 100);
+		Assert.assertEquals(next.size(), 101);
+		Assert.assertEquals(list, next);
+	}
+}
@@ -0,0 +1,94 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work queue patterns. The deque is prefilled to a steady size and every invocation adds and removes the same number of
+ * elements so the size does not drift.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DequeJMH{
+	
+	@Param({"ArrayDeque", "LinkedList", "Unrolled 32", "Indexed 32"})
+	public String _type;
+	@Param({"100", "100000"})
+	public int    size;
+	
+	private Deque<Integer> deque;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		var type = _type.split(" ");
+		deque = switch(type[0]){
+			case "ArrayDeque" -> new ArrayDeque<>();
+			case "LinkedList" -> new LinkedList<>();
+			case "Unrolled" -> new UnrolledLinkedList<>(Integer.parseInt(type[1]));
+			case "Indexed" -> new UnrolledLinkedList<>(Integer.parseInt(type[1]), true);
+			default -> throw new IllegalArgumentException(_type);
+		};
+		for(int i = 0; i<size; i++){
+			deque.addLast(i);
+		}
+	}
+	
+	/**
+	 * FIFO: add at the tail, take from the head
+	 */
+	@Benchmark
+	public long queue(){
+		long sum = 0;
+		for(int i = 0; i<1000; i++){
+			deque.addLast(i);
+			sum += deque.pollFirst();
+		}
+		return sum;
+	}
+	
+	/**
+	 * LIFO: push and pop at the head
+	 */
+	@Benchmark
+	public long stack(){
+		for(int i = 0; i<1000; i++){
+			deque.push(i);
+		}
+		long sum = 0;
+		for(int i = 0; i<1000; i++){
+			sum += deque.pop();
+		}
+		return sum;
+	}
+	
+	/**
+	 * Work stealing: the owner works at the tail, the thief takes from the head
+	 */
+	@Benchmark
+	public long steal(){
+		long sum = 0;
+		for(int i = 0; i<1000; i++){
+			deque.addLast(i);
+			deque.addLast(i);
+			sum += deque.pollLast();
+			sum += deque.pollFirst();
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,110 @@
+package com.lapissea.unrolledlist;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Measures the retained heap of lists built through the insert and remove mix of {@link Utils#gen}. Elements are
+ * replaced with one shared value before measuring so only the structure is counted. ArrayDeque can not remove by
+ * index, it is filled by appending the result of the ArrayList run.
+ * <p>
+ * Unrolled lists are also broken down in to node objects, node arrays (header and used slots) and empty slots, using
+ * the shallow sizes of a 64 bit VM with compressed oops. Other is the measured rest: list objects, index branches and
+ * alignment. Run with a fixed heap, for example {@code -Xms4g -Xmx4g}. The first argument is the max list size.
+ */
+public class FootprintHarness{
+	
+	private static final int[]   ROLL_SIZES     = {8, 16, 32, 64, 128, 256};
+	private static final int     TOTAL_ELEMENTS = 4_000_000;
+	private static final Integer SHARED         = 1000;
+	
+	private static final int NODE_BYTES = UnrolledLinkedList.NODE_BYTES, ARRAY_HEADER_BYTES = UnrolledLinkedList.ARRAY_HEADER_BYTES, REF_BYTES = 4;
+	
+	private static boolean breakdown;
+	
+	public static void main(String[] args) throws InterruptedException{
+		var maxSize = args.length>0? Integer.parseInt(args[0]) : 10_000;
+		
+		var diagnostic = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+		breakdown = Boolean.parseBoolean(diagnostic.getVMOption("UseCompressedOops").getValue());
+		if(!breakdown) System.out.println("Compressed oops are off, only measured totals are shown");
+		
+		//Startup leaves garbage behind that the first baseline would count against the first type
+		measure("Warmup", maxSize, ArrayList::new);
+		
+		System.out.printf("Max list size %d, about %d elements per type%n", maxSize, TOTAL_ELEMENTS);
+		System.out.printf("%-14s %8s %10s %10s %8s %8s %8s %8s%n", "type", "lists", "elements", "bytes/elem", "nodes", "arrays", "empty", "other");
+		
+		System.out.println(measure("ArrayList", maxSize, ArrayList::new));
+		System.out.println(measure("LinkedList", maxSize, LinkedList::new));
+		System.out.println(measure("ArrayDeque", maxSize, ArrayList::new));
+		for(var rollSize : ROLL_SIZES){
+			System.out.println(measure("Unrolled " + rollSize, maxSize, () -> new UnrolledLinkedList<>(rollSize)));
+		}
+		System.out.println(measure("Indexed 32", maxSize, () -> new UnrolledLinkedList<>(32, true)));
+		System.out.println(measure("Adaptive", maxSize, UnrolledLinkedList::adaptive));
+	}
+	
+	/**
+	 * @return table row of the type
+	 */
+	private static String measure(String name, int maxSize, Supplier<List<Integer>> factory) throws InterruptedException{
+		var deque = name.equals("ArrayDeque");
+		var lists = new Object[TOTAL_ELEMENTS/Math.max(1, maxSize/4) + 16];
+		
+		var  before   = usedHeap();
+		int  count    = 0;
+		long elements = 0, nodes = 0, capacity = 0;
+		while(elements<TOTAL_ELEMENTS && count<lists.length){
+			var list = Utils.gen(new Random(count), factory.get(), maxSize, 3);
+			list.replaceAll(v -> SHARED);
+			elements += list.size();
+			
+			Collection<Integer> kept = list;
+			if(deque){
+				var d = new ArrayDeque<Integer>();
+				for(var v : list) d.addLast(v);
+				kept = d;
+			}
+			if(kept instanceof UnrolledLinkedList<Integer> u){
+				var stats = u.stats();
+				nodes += stats.nodeCount();
+				capacity += stats.capacity();
+			}
+			lists[count++] = kept;
+		}
+		var retained = usedHeap() - before;
+		Reference.reachabilityFence(lists);
+		
+		var perElement = retained/(double)elements;
+		if(nodes == 0 || !breakdown){
+			return "%-14s %8d %10d %10.2f".formatted(name, count, elements, perElement);
+		}
+		var nodeBytes  = nodes*NODE_BYTES;
+		var arrayBytes = nodes*ARRAY_HEADER_BYTES + elements*REF_BYTES;
+		var emptyBytes = (capacity - elements)*REF_BYTES;
+		var otherBytes = retained - nodeBytes - arrayBytes - emptyBytes;
+		return "%-14s %8d %10d %10.2f %8.2f %8.2f %8.2f %8.2f".formatted(
+			name, count, elements, perElement,
+			nodeBytes/(double)elements, arrayBytes/(double)elements, emptyBytes/(double)elements, otherBytes/(double)elements
+		);
+	}
+	
+	private static long usedHeap() throws InterruptedException{
+		var memory = ManagementFactory.getMemoryMXBean();
+		for(int i = 0; i<4; i++){
+			System.gc();
+			Thread.sleep(50);
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+}
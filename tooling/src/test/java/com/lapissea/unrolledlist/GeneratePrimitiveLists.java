@@ -0,0 +1,84 @@
+package com.lapissea.unrolledlist;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes UnrolledIntList, UnrolledLongList and UnrolledDoubleList from {@code UnrolledPrimitiveList.java.template}.
+ * The template uses {@code $type$} (int), {@code $Type$} (Int) and {@code $Boxed$} (Integer), and lines between
+ * {@code #if[double]}, {@code #else[double]} and {@code #end[double]} are kept only for the matching type. Run from the
+ * project or the tooling directory after changing the template, {@link PrimitiveListTest} fails while the generated
+ * files are out of date.
+ */
+public final class GeneratePrimitiveLists{
+	
+	static final String PACKAGE_PATH = "com/lapissea/unrolledlist/";
+	static final String TEMPLATE     = "UnrolledPrimitiveList.java.template";
+	
+	static final List<String> TYPES = List.of("int", "long", "double");
+	
+	private static final Map<String, String> BOXED = Map.of("int", "Integer", "long", "Long", "double", "Double");
+	
+	public static void main(String[] args) throws IOException{
+		var root     = projectRoot();
+		var template = Files.readString(templatePath(root));
+		for(var type : TYPES){
+			var path = sourcePath(root, type);
+			Files.writeString(path, generate(template, type));
+			System.out.println("Wrote " + path);
+		}
+	}
+	
+	static Path projectRoot(){
+		var dir = Path.of("").toAbsolutePath();
+		if(Files.isDirectory(dir.resolve("src/main/template"))) return dir;
+		return dir.getParent();
+	}
+	static Path templatePath(Path root){
+		return root.resolve("src/main/template/" + PACKAGE_PATH + TEMPLATE);
+	}
+	static Path sourcePath(Path root, String type){
+		return root.resolve("src/main/java/" + PACKAGE_PATH + "Unrolled" + capitalized(type) + "List.java");
+	}
+	
+	static String generate(String template, String type){
+		var lines = new ArrayList<String>();
+		lines.add("// Generated by GeneratePrimitiveLists from " + TEMPLATE + ", edit the template instead");
+		
+		String  block = null;
+		boolean keep  = true;
+		for(var line : template.split("\n", -1)){
+			var directive = line.strip();
+			if(directive.startsWith("#if[")){
+				if(block != null) throw new IllegalArgumentException("Nested " + directive);
+				block = directive.substring(4, directive.length() - 1);
+				keep = block.equals(type);
+				continue;
+			}
+			if(directive.startsWith("#else[")){
+				keep = !keep;
+				continue;
+			}
+			if(directive.startsWith("#end[")){
+				block = null;
+				keep = true;
+				continue;
+			}
+			if(keep) lines.add(line);
+		}
+		if(block != null) throw new IllegalArgumentException("Unterminated #if[" + block + "]");
+		
+		return String.join("\n", lines)
+		             .replace("$type$", type)
+		             .replace("$Type$", capitalized(type))
+		             .replace("$Boxed$", BOXED.get(type));
+	}
+	
+	private static String capitalized(String type){
+		return Character.toUpperCase(type.charAt(0)) + type.substring(1);
+	}
+}
@@ -0,0 +1,121 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Positional list operations. Every benchmark removes as many elements as it adds so the size stays where it was set
+ * up, and all positions come from pre-generated operation streams.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListOpsJMH{
+	
+	private static final int ITER_STEPS = 16, PAGE = 100;
+	
+	@Param({
+		"Array", "Linked",
+		"Unrolled 8", "Unrolled 16", "Unrolled 32", "Unrolled 64", "Unrolled 128", "Unrolled 256",
+		"Indexed 32", "Adaptive"
+	})
+	public String _type;
+	@Param({"10", "1000", "100000", "10000000"})
+	public int    size;
+	
+	private List<Integer> list;
+	private int[]         insertOps, removeOps, iterOps, pageOps;
+	private int           steps, page;
+	private int           cursor;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		list = create(_type);
+		var rand = new Random(42);
+		rand.ints(size).forEach(list::add);
+		
+		insertOps = Utils.ops(rand, size + 1);
+		removeOps = Utils.ops(rand, size + 1);
+		steps = Math.min(ITER_STEPS, size);
+		iterOps = Utils.ops(rand, size - steps + 1);
+		page = Math.min(PAGE, size);
+		pageOps = Utils.ops(rand, size - page + 1);
+	}
+	
+	static List<Integer> create(String type){
+		var parts = type.split(" ");
+		return switch(parts[0]){
+			case "Array" -> new ArrayList<>();
+			case "Linked" -> new LinkedList<>();
+			case "Unrolled" -> new UnrolledLinkedList<>(Integer.parseInt(parts[1]));
+			case "Indexed" -> new UnrolledLinkedList<>(Integer.parseInt(parts[1]), true);
+			case "Adaptive" -> UnrolledLinkedList.adaptive();
+			default -> throw new IllegalArgumentException(type);
+		};
+	}
+	
+	private int next(){
+		return cursor++&(Utils.OPS - 1);
+	}
+	
+	/**
+	 * Insert at one random position and remove at another
+	 */
+	@Benchmark
+	public Integer randomInsertRemove(){
+		var i = next();
+		list.add(insertOps[i], i);
+		return list.remove(removeOps[i]);
+	}
+	
+	/**
+	 * Replaces a run of consecutive elements through a list iterator by removing and adding each one
+	 */
+	@Benchmark
+	@OperationsPerInvocation(ITER_STEPS)
+	public int listIteratorAddRemove(){
+		var it  = list.listIterator(iterOps[next()]);
+		int sum = 0;
+		for(int i = 0; i<steps; i++){
+			sum += it.next();
+			it.remove();
+			it.add(i);
+		}
+		return sum;
+	}
+	
+	/**
+	 * Reads a page of up to 100 elements at a random offset through a subList view
+	 */
+	@Benchmark
+	public long subListPaging(){
+		var  from = pageOps[next()];
+		long sum  = 0;
+		for(var v : list.subList(from, from + page)){
+			sum += v;
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public Object[] toArray(){
+		return list.toArray();
+	}
+}
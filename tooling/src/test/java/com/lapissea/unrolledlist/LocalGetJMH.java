@@ -0,0 +1,80 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Positional get where every index is close to the previous one, like scrolling a window or editing neighbours.
+ */
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(3)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LocalGetJMH{
+	
+	private static final int OPS = 1000;
+	
+	@Param({"Array", "Unrolled 16", "Unrolled 32", "Indexed 32"})
+	public String _type;
+	@Param({"1000", "100000", "1000000"})
+	public int    size;
+	/**
+	 * Maximum jump between two consecutive indices. 1 is a plain sequential scan.
+	 */
+	@Param({"1", "8", "64"})
+	public int    spread;
+	
+	public int seed = -1;
+	
+	private List<Integer> list;
+	private int[]         idx;
+	private int           cursor;
+	private Random        rand;
+	
+	@Setup(Level.Trial)
+	public void setUpList(){
+		rand = seed == -1? new Random() : new Random(seed);
+		var type  = _type.split(" ");
+		var chSiz = type.length == 2? Integer.parseInt(type[1]) : 16;
+		
+		var unrolled = new UnrolledLinkedList<Integer>(chSiz, type[0].equals("Indexed"));
+		for(int i = 0; i<size; i++){
+			unrolled.add(rand.nextInt(100, 999));
+		}
+		list = type[0].equals("Array")? new ArrayList<>(unrolled) : unrolled;
+		idx = new int[OPS];
+	}
+	
+	@Setup(Level.Iteration)
+	public void setUp(){
+		for(int i = 0; i<OPS; i++){
+			var step = spread == 1? 1 : rand.nextInt(-spread, spread + 1);
+			cursor = Math.floorMod(cursor + step, size);
+			idx[i] = cursor;
+		}
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(OPS)
+	public void get(Blackhole bh){
+		for(int i = 0; i<OPS; i++){
+			bh.consume(list.get(idx[i]));
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.lapissea.unrolledlist;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class MappedListTest{
+	
+	@Test
+	void longFuzz() throws IOException{
+		var file = Files.createTempFile("mapped", ".ull");
+		try{
+			var rand = new Random(69);
+			var ref  = new ArrayList<Long>();
+			var list = MappedUnrolledList.open(file, ElementCodec.LONG, 64);
+			try{
+				for(int i = 0; i<300_000; i++){
+					if(rand.nextInt(5000) == 0){
+						list.clear();
+						ref.clear();
+					}
+					if(rand.nextInt(2000) == 0){
+						//Reopening only reads the header, the pages stay where they are
+						list.close();
+						list = MappedUnrolledList.open(file, ElementCodec.LONG);
+						Assert.assertEquals(list, ref);
+					}
+					
+					var val    = rand.nextLong();
+					var action = rand.nextInt(6);
+					if(action>1 && ref.isEmpty()) continue;
+					var index = ref.isEmpty()? 0 : rand.nextInt(ref.size());
+					try{
+						switch(action){
+							case 0 -> {
+								list.add(val);
+								ref.add(val);
+							}
+							case 1 -> {
+								list.add(index, val);
+								ref.add(index, val);
+							}
+							case 2, 3 -> Assert.assertEquals(list.remove(index), ref.remove(index));
+							case 4 -> Assert.assertEquals(list.set(index, val), ref.set(index, val));
+							case 5 -> Assert.assertEquals(list.get(index), ref.get(index));
+						}
+						Assert.assertEquals(list.size(), ref.size());
+					}catch(Throwable e){
+						Assert.fail("Fail on iteration: " + i + ", action: " + action + " at " + index, e);
+					}
+				}
+				Assert.assertEquals(list, ref);
+			}finally{
+				list.close();
+			}
+		}finally{
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	@Test
+	void reopen() throws IOException{
+		var file = Files.createTempFile("mapped", ".ull");
+		try{
+			try(var list = MappedUnrolledList.open(file, ElementCodec.INT)){
+				for(int i = 0; i<100_000; i++){
+					list.add(i);
+				}
+				list.subList(1000, 2000).clear();
+				list.force();
+			}
+			try(var list = MappedUnrolledList.open(file, ElementCodec.INT)){
+				Assert.assertEquals(list.size(), 99_000);
+				Assert.assertEquals(list.get(999), 999);
+				Assert.assertEquals(list.get(1000), 2000);
+				Assert.assertEquals(list.get(98_999), 99_999);
+				list.add(0, -1);
+			}
+			Assert.assertThrows(IOException.class, () -> MappedUnrolledList.open(file, ElementCodec.LONG).close());
+			try(var list = MappedUnrolledList.open(file, ElementCodec.INT)){
+				Assert.assertEquals(list.subList(0, 3), List.of(-1, 0, 1));
+			}
+		}finally{
+			Files.deleteIfExists(file);
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares heap and off heap lists of longs. The gc benchmark measures a full collection while the list is alive,
+ * the off heap list only leaves its node headers for the collector to trace. Run with -prof gc to also see the
+ * collector work done by the other benchmarks.
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xmx16g", "-Xms16g"})
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class OffHeapJMH{
+	
+	@Param({"Boxed", "Primitive", "OffHeap"})
+	public String _type;
+	@Param({"1000000", "100000000"})
+	public int    size;
+	
+	private UnrolledLinkedList<Long> boxed;
+	private UnrolledLongList         primitive;
+	private UnrolledOffHeapList      offHeap;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		switch(_type){
+			case "Boxed" -> {
+				boxed = new UnrolledLinkedList<>(64);
+				for(long i = 0; i<size; i++) boxed.add(i);
+			}
+			case "Primitive" -> {
+				primitive = new UnrolledLongList(64);
+				for(long i = 0; i<size; i++) primitive.addLong(i);
+			}
+			case "OffHeap" -> {
+				offHeap = new UnrolledOffHeapList(8, 64);
+				for(long i = 0; i<size; i++) offHeap.addLong(i);
+			}
+			default -> throw new IllegalArgumentException(_type);
+		}
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown(){
+		if(offHeap != null) offHeap.close();
+		boxed = null;
+		primitive = null;
+		offHeap = null;
+	}
+	
+	@Benchmark
+	public long sum(){
+		return switch(_type){
+			case "Boxed" -> boxed.stream().mapToLong(l -> l).sum();
+			case "Primitive" -> primitive.longStream().sum();
+			case "OffHeap" -> {
+				var sum = new long[1];
+				offHeap.forEachLong(0, l -> sum[0] += l);
+				yield sum[0];
+			}
+			default -> throw new IllegalArgumentException(_type);
+		};
+	}
+	
+	@Benchmark
+	public long get(){
+		long sum = 0;
+		for(int i = 0; i<1000; i++){
+			var idx = (int)((i*2654435761L)%size);
+			sum += switch(_type){
+				case "Boxed" -> boxed.get(idx);
+				case "Primitive" -> primitive.getLong(idx);
+				case "OffHeap" -> offHeap.getLong(idx);
+				default -> throw new IllegalArgumentException(_type);
+			};
+		}
+		return sum;
+	}
+	
+	/**
+	 * Full collection pause with the list still reachable
+	 */
+	@Benchmark
+	@Measurement(iterations = 5, batchSize = 1)
+	@BenchmarkMode(Mode.SingleShotTime)
+	public Object gc(){
+		System.gc();
+		return boxed != null? boxed : primitive != null? primitive : offHeap;
+	}
+}
@@ -0,0 +1,102 @@
+package com.lapissea.unrolledlist;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.Random;
+
+public class OffHeapListTest{
+	
+	@Test
+	void longFuzz(){
+		var rand = new Random(69);
+		try(var list = new UnrolledOffHeapList(8, 8)){
+			var ref = new ArrayList<Long>();
+			
+			for(int i = 0; i<1_000_000; i++){
+				if(rand.nextInt(1000) == 0){
+					list.clear();
+					ref.clear();
+				}
+				
+				var val    = rand.nextLong(10, 99);
+				var action = rand.nextInt(5);
+				if(action>1 && ref.isEmpty()) continue;
+				var index = ref.isEmpty()? 0 : rand.nextInt(ref.size());
+				try{
+					switch(action){
+						case 0 -> {
+							list.addLong(val);
+							ref.add(val);
+						}
+						case 1 -> {
+							list.addLong(index, val);
+							ref.add(index, val);
+						}
+						case 2 -> {
+							list.remove(index);
+							ref.remove(index);
+						}
+						case 3 -> {
+							list.setLong(index, 0, val);
+							ref.set(index, val);
+						}
+						case 4 -> Assert.assertEquals(list.getLong(index), (long)ref.get(index));
+					}
+					Assert.assertEquals(list.size(), ref.size());
+				}catch(Throwable e){
+					Assert.fail("Fail on iteration: " + i + ", action: " + action + " at " + index, e);
+				}
+			}
+			
+			var all = new ArrayList<Long>();
+			list.forEachLong(0, all::add);
+			Assert.assertEquals(all, ref);
+		}
+	}
+	
+	@Test
+	void struct(){
+		//struct{ int id; double value; long time; }
+		var empty = MemorySegment.ofArray(new byte[20]);
+		try(var list = new UnrolledOffHeapList(20, 16)){
+			for(int i = 0; i<1000; i++){
+				list.add(0, empty);
+				list.setInt(0, 0, i);
+				list.setDouble(0, 4, i/2D);
+				list.setLong(0, 12, i*1000L);
+			}
+			for(int i = 0; i<1000; i++){
+				var id = 999 - i;
+				Assert.assertEquals(list.getInt(i, 0), id);
+				Assert.assertEquals(list.getDouble(i, 4), id/2D);
+				Assert.assertEquals(list.getLong(i, 12), id*1000L);
+			}
+			Assert.assertThrows(IndexOutOfBoundsException.class, () -> list.getLong(0, 16));
+		}
+	}
+	
+	@Test
+	void addOwnElement(){
+		var rand = new Random(42);
+		try(var list = new UnrolledOffHeapList(8, 8)){
+			var ref = new ArrayList<Long>();
+			for(int i = 0; i<100; i++){
+				list.addLong(i);
+				ref.add((long)i);
+			}
+			for(int i = 0; i<10_000; i++){
+				var from = rand.nextInt(ref.size());
+				var to   = rand.nextInt(ref.size() + 1);
+				//get returns a view of the list memory that the insert moves
+				list.add(to, list.get(from));
+				ref.add(to, ref.get(from));
+			}
+			for(int i = 0; i<ref.size(); i++){
+				Assert.assertEquals(list.getLong(i), (long)ref.get(i));
+			}
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parallel sort scaling. The sort runs inside a pool with the given parallelism, so the speedup is the score of
+ * threads=1 divided by the score of a given thread count. The sequential benchmark is the baseline without any
+ * task overhead.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--enable-preview", "-Xmx8g"})
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelSortJMH{
+	
+	@Param({"100000", "1000000", "10000000"})
+	public int size;
+	@Param({"1", "2", "4", "8", "16", "32"})
+	public int threads;
+	
+	private List<Integer>               values;
+	private UnrolledLinkedList<Integer> list;
+	private ForkJoinPool                pool;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		values = new Random(42).ints(size).boxed().toList();
+		list = new UnrolledLinkedList<>(32);
+		pool = new ForkJoinPool(threads);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown(){
+		pool.close();
+	}
+	
+	@Setup(Level.Invocation)
+	public void shuffle(){
+		list.clear();
+		list.addAll(values);
+	}
+	
+	@Benchmark
+	public Object sequential(){
+		list.sort(Integer::compare);
+		return list;
+	}
+	
+	@Benchmark
+	public Object parallel(){
+		pool.submit(() -> list.parallelSort(Integer::compare)).join();
+		return list;
+	}
+}
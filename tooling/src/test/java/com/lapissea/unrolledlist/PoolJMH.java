@@ -0,0 +1,61 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady insert and remove churn with and without the node array pool. Run with -prof gc and compare
+ * gc.alloc.rate.norm between pool sizes.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PoolJMH{
+	
+	@Param({"Unrolled 32", "Indexed 32"})
+	public String _type;
+	@Param({"0", "64"})
+	public int    pool;
+	@Param({"10000", "1000000"})
+	public int    size;
+	
+	private UnrolledLinkedList<Integer> list;
+	private Random                      rand;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		var type = _type.split(" ");
+		list = new UnrolledLinkedList<>(Integer.parseInt(type[1]), type[0].equals("Indexed"));
+		list.setArrayPoolSize(pool);
+		rand = new Random(42);
+		for(int i = 0; i<size; i++) list.add(i);
+	}
+	
+	/**
+	 * Inserts a run of elements at one place and removes as many at another so nodes keep splitting and merging
+	 */
+	@Benchmark
+	public Object churn(){
+		var l   = list;
+		var r   = rand;
+		var run = 64;
+		var at  = r.nextInt(l.size() - run);
+		for(int i = 0; i<run; i++) l.add(at, i);
+		at = r.nextInt(l.size() - run);
+		for(int i = 0; i<run; i++) l.remove(at);
+		return l;
+	}
+}
@@ -0,0 +1,170 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link UnrolledIntList} with a boxed {@link UnrolledLinkedList} and a plain growing int[]
+ */
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(3)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PrimitiveJMH{
+	
+	private interface IntSeq{
+		void add(int value);
+		void add(int index, int value);
+		int get(int index);
+		int remove(int index);
+		long sum();
+		int size();
+	}
+	
+	private static final class Boxed implements IntSeq{
+		private final UnrolledLinkedList<Integer> list = new UnrolledLinkedList<>(32);
+		@Override
+		public void add(int value){ list.add(value); }
+		@Override
+		public void add(int index, int value){ list.add(index, value); }
+		@Override
+		public int get(int index){ return list.get(index); }
+		@Override
+		public int remove(int index){ return list.remove(index); }
+		@Override
+		public long sum(){ return list.stream().mapToLong(i -> i).sum(); }
+		@Override
+		public int size(){ return list.size(); }
+	}
+	
+	private static final class Primitive implements IntSeq{
+		private final UnrolledIntList list = new UnrolledIntList(32);
+		@Override
+		public void add(int value){ list.addInt(value); }
+		@Override
+		public void add(int index, int value){ list.addInt(index, value); }
+		@Override
+		public int get(int index){ return list.getInt(index); }
+		@Override
+		public int remove(int index){ return list.removeInt(index); }
+		@Override
+		public long sum(){ return list.intStream().asLongStream().sum(); }
+		@Override
+		public int size(){ return list.size(); }
+	}
+	
+	private static final class IntArray implements IntSeq{
+		private int[] arr = new int[16];
+		private int   size;
+		
+		@Override
+		public void add(int value){ add(size, value); }
+		@Override
+		public void add(int index, int value){
+			if(size == arr.length) arr = Arrays.copyOf(arr, size + (size>>1));
+			System.arraycopy(arr, index, arr, index + 1, size - index);
+			arr[index] = value;
+			size++;
+		}
+		@Override
+		public int get(int index){ return arr[index]; }
+		@Override
+		public int remove(int index){
+			var old = arr[index];
+			System.arraycopy(arr, index + 1, arr, index, size - index - 1);
+			size--;
+			return old;
+		}
+		@Override
+		public long sum(){
+			long sum = 0;
+			for(int i = 0; i<size; i++) sum += arr[i];
+			return sum;
+		}
+		@Override
+		public int size(){ return size; }
+	}
+	
+	private static final int OPS = 100;
+	
+	@Param({"Boxed", "Primitive", "IntArray"})
+	public String _type;
+	@Param({"1000", "100000", "1000000"})
+	public int    size;
+	
+	public int seed = -1;
+	
+	private IntSeq seq;
+	private int[]  idx, values;
+	
+	private IntSeq create(){
+		return switch(_type){
+			case "Boxed" -> new Boxed();
+			case "Primitive" -> new Primitive();
+			case "IntArray" -> new IntArray();
+			default -> throw new IllegalArgumentException(_type);
+		};
+	}
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		var rand = seed == -1? new Random() : new Random(seed);
+		seq = create();
+		for(int i = 0; i<size; i++){
+			seq.add(rand.nextInt());
+		}
+		idx = rand.ints(OPS, 0, size).toArray();
+		values = rand.ints(OPS).toArray();
+	}
+	
+	@Benchmark
+	public Object append(){
+		var s = create();
+		for(int i = 0; i<size; i++){
+			s.add(i);
+		}
+		return s;
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(OPS)
+	public void get(Blackhole bh){
+		for(int i = 0; i<OPS; i++){
+			bh.consume(seq.get(idx[i]));
+		}
+	}
+	
+	/**
+	 * Inserts and then removes so the size stays stable between invocations
+	 */
+	@Benchmark
+	@OperationsPerInvocation(OPS*2)
+	public void insertRemove(Blackhole bh){
+		for(int i = 0; i<OPS; i++){
+			seq.add(idx[i], values[i]);
+		}
+		for(int i = OPS - 1; i>=0; i--){
+			bh.consume(seq.remove(idx[i]));
+		}
+	}
+	
+	@Benchmark
+	public long sum(){
+		return seq.sum();
+	}
+}
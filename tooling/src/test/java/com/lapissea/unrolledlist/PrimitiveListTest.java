@@ -0,0 +1,210 @@
+package com.lapissea.unrolledlist;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+public class PrimitiveListTest{
+	
+	private static <T extends Comparable<T>> void fuzz(List<T> unrolled, Function<Random, T> gen){
+		var rand = new Random(69);
+		var list = new CheckList<>(unrolled, new ArrayList<>());
+		
+		for(int i = 0; i<1_000_000; i++){
+			if(rand.nextInt(1000) == 0) list.clear();
+			
+			var val    = gen.apply(rand);
+			var action = rand.nextInt(7);
+			if(action>1 && list.isEmpty()) continue;
+			var index = list.isEmpty()? 0 : rand.nextInt(list.size());
+			try{
+				switch(action){
+					case 0 -> list.add(val);
+					case 1 -> list.add(index, val);
+					case 2 -> list.remove(index);
+					case 3 -> list.set(index, val);
+					case 4 -> list.contains(val);
+					case 5 -> Assert.assertEquals(unrolled.stream().skip(index).findFirst().orElseThrow(), list.get(index));
+					case 6 -> {
+						if(rand.nextInt(20) == 0) list.sort(null);
+					}
+				}
+			}catch(Throwable e){
+				Assert.fail("Fail on iteration: " + i + ", action: " + action + " at " + index, e);
+			}
+		}
+	}
+	
+	/**
+	 * The int, long and double lists are generated, see {@link GeneratePrimitiveLists}
+	 */
+	@Test
+	void generatedFromTemplate() throws IOException{
+		var root     = GeneratePrimitiveLists.projectRoot();
+		var template = Files.readString(GeneratePrimitiveLists.templatePath(root));
+		for(var type : GeneratePrimitiveLists.TYPES){
+			var path = GeneratePrimitiveLists.sourcePath(root, type);
+			Assert.assertEquals(Files.readString(path), GeneratePrimitiveLists.generate(template, type), path + " is out of date, run GeneratePrimitiveLists");
+		}
+	}
+	
+	@Test
+	void intFuzz(){
+		fuzz(new UnrolledIntList(8), r -> r.nextInt(10, 99));
+	}
+	@Test
+	void longFuzz(){
+		fuzz(new UnrolledLongList(8), r -> r.nextLong(10, 99));
+	}
+	@Test
+	void doubleFuzz(){
+		fuzz(new UnrolledDoubleList(8), r -> (double)r.nextInt(10, 99));
+	}
+	
+	@Test(dependsOnMethods = "intFuzz")
+	void intAddRemainSorted(){
+		var rand = new Random(69);
+		for(int i = 0; i<10_000; i++){
+			var list = new UnrolledIntList(rand.nextInt(4, 32));
+			var arr  = new ArrayList<Integer>();
+			for(int j = 0, j2 = rand.nextInt(300); j<j2; j++){
+				var val = rand.nextInt(100, 999);
+				var idx = Collections.binarySearch(arr, val);
+				if(idx<0) idx = -idx - 1;
+				arr.add(idx, val);
+				
+				var actual = list.addRemainSorted(val);
+				Assert.assertEquals(arr.get(actual), val);
+				
+				if(rand.nextInt(10) == 0){
+					var rem = rand.nextInt(arr.size());
+					Assert.assertEquals(list.removeInt(rem), arr.remove(rem));
+				}
+			}
+			Assert.assertEquals(list, arr);
+		}
+	}
+	
+	/**
+	 * Lists built by random inserts have many short runs and half full nodes, partly presorted lists have long runs
+	 */
+	@Test(dependsOnMethods = {"intFuzz", "longFuzz", "doubleFuzz"})
+	void sort(){
+		var rand = new Random(69);
+		for(int i = 0; i<500; i++){
+			var roll  = rand.nextInt(4, 64);
+			var ints  = new UnrolledIntList(roll);
+			var longs = new UnrolledLongList(roll);
+			var dbls  = new UnrolledDoubleList(roll);
+			var count = rand.nextInt(5000);
+			var runs  = rand.nextBoolean();
+			for(int j = 0; j<count; j++){
+				var val = runs? j/(rand.nextInt(50) + 1) : rand.nextInt(-1000, 1000);
+				var idx = runs? ints.size() : rand.nextInt(ints.size() + 1);
+				ints.addInt(idx, val);
+				longs.addLong(idx, val*10_000_000_000L);
+				dbls.addDouble(idx, val == 0? -0.0 : val == 1? Double.NaN : val/2D);
+			}
+			var intRef  = ints.toIntArray();
+			var longRef = longs.toLongArray();
+			var dblRef  = dbls.toDoubleArray();
+			Arrays.sort(intRef);
+			Arrays.sort(longRef);
+			Arrays.sort(dblRef);
+			
+			ints.sort();
+			longs.sort();
+			dbls.sort();
+			Assert.assertEquals(ints.toIntArray(), intRef);
+			Assert.assertEquals(longs.toLongArray(), longRef);
+			Assert.assertEquals(dbls.toDoubleArray(), dblRef);
+			
+			//Links and sizes need to hold up to further edits
+			for(int j = 0; j<200 && !ints.isEmpty(); j++){
+				var idx = rand.nextInt(ints.size());
+				Assert.assertEquals(ints.removeInt(idx), intRef[idx]);
+				intRef = removed(intRef, idx);
+			}
+			Assert.assertEquals(ints.toIntArray(), intRef);
+			Assert.assertEquals(ints.intStream().toArray(), intRef);
+		}
+	}
+	
+	private static int[] removed(int[] arr, int idx){
+		var res = new int[arr.length - 1];
+		System.arraycopy(arr, 0, res, 0, idx);
+		System.arraycopy(arr, idx + 1, res, idx, res.length - idx);
+		return res;
+	}
+	
+	@Test(dependsOnMethods = "intFuzz")
+	void intStream(){
+		var list = new UnrolledIntList(8);
+		for(int i = 0; i<100_000; i++){
+			list.addInt(i);
+		}
+		Assert.assertEquals(list.intStream().sum(), list.stream().mapToInt(i -> i).sum());
+		Assert.assertEquals(list.parallelIntStream().asLongStream().sum(), 100_000L*(100_000 - 1)/2);
+		Assert.assertEquals(list.intStream().skip(500).limit(3).toArray(), new int[]{500, 501, 502});
+		Assert.assertEquals(list.parallelIntStream().toArray(), list.toIntArray());
+	}
+	
+	/**
+	 * Runs on the vector kernels when the test JVM has --add-modules jdk.incubator.vector and on the plain loops otherwise
+	 */
+	@Test(dependsOnMethods = {"intFuzz", "longFuzz", "doubleFuzz"})
+	void scans(){
+		var rand = new Random(69);
+		for(int i = 0; i<300; i++){
+			var roll  = rand.nextInt(4, 200);
+			var ints  = new UnrolledIntList(roll);
+			var longs = new UnrolledLongList(roll);
+			var dbls  = new UnrolledDoubleList(roll);
+			var ref   = new ArrayList<Integer>();
+			for(int j = 0, j2 = rand.nextInt(3000); j<j2; j++){
+				var val = rand.nextInt(-50, 50);
+				var idx = rand.nextInt(ref.size() + 1);
+				ref.add(idx, val);
+				ints.addInt(idx, val);
+				longs.addLong(idx, val*10_000_000_000L);
+				dbls.addDouble(idx, val == 0? -0.0 : val == 1? Double.NaN : val/2D);
+			}
+			
+			Assert.assertEquals(ints.sum(), ref.stream().mapToInt(v -> v).sum());
+			Assert.assertEquals(longs.sum(), longs.longStream().sum());
+			Assert.assertEquals(ints.min(), ints.intStream().min());
+			Assert.assertEquals(ints.max(), ints.intStream().max());
+			Assert.assertEquals(longs.min(), longs.longStream().min());
+			Assert.assertEquals(longs.max(), longs.longStream().max());
+			Assert.assertEquals(dbls.min(), dbls.doubleStream().min());
+			Assert.assertEquals(dbls.max(), dbls.doubleStream().max());
+			
+			for(int j = 0; j<20; j++){
+				var val = rand.nextInt(-55, 55);
+				Assert.assertEquals(ints.indexOf(val), ref.indexOf(val));
+				Assert.assertEquals(ints.lastIndexOf(val), ref.lastIndexOf(val));
+				Assert.assertEquals(longs.indexOf(val*10_000_000_000L), ref.indexOf(val));
+				Assert.assertEquals(longs.lastIndexOf(val*10_000_000_000L), ref.lastIndexOf(val));
+				
+				var dVal = val == 0? -0.0 : val == 1? Double.NaN : val/2D;
+				Assert.assertEquals(dbls.indexOf(dVal), ref.indexOf(val));
+				Assert.assertEquals(dbls.lastIndexOf(dVal), ref.lastIndexOf(val));
+				Assert.assertEquals(dbls.indexOf(0.0), -1);
+				
+				for(var op : ValueComparison.values()){
+					Assert.assertEquals(ints.count(op, val), ints.count(v -> op.test(v, val)), op.name());
+					Assert.assertEquals(longs.count(op, val*10_000_000_000L), ints.count(v -> op.test(v, val)), op.name());
+					Assert.assertEquals(dbls.count(op, val/2D), dbls.count(v -> op.test(v, val/2D)), op.name());
+				}
+			}
+		}
+	}
+}
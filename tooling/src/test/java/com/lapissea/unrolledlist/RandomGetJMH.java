@@ -34,43 +34,54 @@ public class RandomGetJMH{
 			var inst = new RandomGetJMH();
 			inst._type = "Unrolled 32";
 			inst.size = 200;
-			inst.setUp();
+			inst.setUpList();
 			inst.get(b);
 		}
 	}
 	
-	@Param({"Linked", "Array", "Unrolled 16", "Unrolled 32"})
+	@Param({"Linked", "Array", "Unrolled 16", "Unrolled 32", "Indexed 16", "Indexed 32"})
 	public String _type;
-	@Param({"20", "100", "300", "500"})
+	@Param({"10", "20", "100", "300", "500", "100000", "1000000", "10000000"})
 	public int    size;
 	
 	public int seed = -1;
 	
 	private List<Integer> list;
 	private int[]         idx;
+	private int           cursor;
 	
-	@Setup(Level.Invocation)
-	public void setUp(){
-		var rand  = seed == -1? new Random() : new Random(seed);
-		var pre   = "Unrolled ";
-		var chSiz = _type.startsWith(pre)? Integer.parseInt(_type.substring(pre.length())) : 16;
+	private Random rand;
+	
+	@Setup(Level.Trial)
+	public void setUpList(){
+		rand = seed == -1? new Random() : new Random(seed);
+		var type  = _type.split(" ");
+		var chSiz = type.length == 2? Integer.parseInt(type[1]) : 16;
 		
 		list = Utils.gen(rand, chSiz, size, 3, false);
 		
 		if(list.isEmpty()) list.add(69);
-		if(_type.equals("Array")) list = new ArrayList<>(list);
-		if(_type.equals("Linked")) list = new LinkedList<>(list);
-		
-		idx = rand.ints(100, 0, list.size()).toArray();
+		switch(type[0]){
+			case "Array" -> list = new ArrayList<>(list);
+			case "Linked" -> list = new LinkedList<>(list);
+			case "Indexed" -> {
+				var indexed = new UnrolledLinkedList<Integer>(chSiz, true);
+				indexed.addAll(list);
+				list = indexed;
+			}
+		}
+		idx = Utils.ops(rand, list.size());
 	}
 	
 	@Benchmark
 	@OperationsPerInvocation(100)
 	public void get(Blackhole bh){
+		var c = cursor;
 		for(int i = 0; i<100; i++){
-			var id = idx[i];
+			var id = idx[(c + i)&(Utils.OPS - 1)];
 			bh.consume(list.get(id));
 		}
+		cursor = c + 100;
 	}
 	
 	
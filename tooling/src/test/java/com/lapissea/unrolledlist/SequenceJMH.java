@@ -0,0 +1,113 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends at both ends and whole collection traversal. ArrayList has no deque methods so it appends at the head with
+ * add(0) and removes from the ends by index.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SequenceJMH{
+	
+	private static final int APPENDS = 100;
+	
+	@Param({
+		"Array", "Linked", "ArrayDeque",
+		"Unrolled 8", "Unrolled 16", "Unrolled 32", "Unrolled 64", "Unrolled 128", "Unrolled 256",
+		"Indexed 32", "Adaptive"
+	})
+	public String _type;
+	@Param({"10", "1000", "100000", "10000000"})
+	public int    size;
+	
+	private Collection<Integer> values;
+	private Deque<Integer>      deque;
+	private ArrayList<Integer>  array;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		values = _type.equals("ArrayDeque")? new ArrayDeque<>() : ListOpsJMH.create(_type);
+		new Random(42).ints(size).forEach(values::add);
+		if(values instanceof Deque<Integer> d) deque = d;
+		else array = (ArrayList<Integer>)values;
+	}
+	
+	/**
+	 * Adds at the head and removes the same number from the tail
+	 */
+	@Benchmark
+	@OperationsPerInvocation(APPENDS)
+	public long appendHead(){
+		long sum = 0;
+		if(deque != null){
+			for(int i = 0; i<APPENDS; i++) deque.addFirst(i);
+			for(int i = 0; i<APPENDS; i++) sum += deque.pollLast();
+		}else{
+			for(int i = 0; i<APPENDS; i++) array.add(0, i);
+			for(int i = 0; i<APPENDS; i++) sum += array.remove(array.size() - 1);
+		}
+		return sum;
+	}
+	
+	/**
+	 * Adds at the tail and removes the same number from the head
+	 */
+	@Benchmark
+	@OperationsPerInvocation(APPENDS)
+	public long appendTail(){
+		long sum = 0;
+		if(deque != null){
+			for(int i = 0; i<APPENDS; i++) deque.addLast(i);
+			for(int i = 0; i<APPENDS; i++) sum += deque.pollFirst();
+		}else{
+			for(int i = 0; i<APPENDS; i++) array.add(i);
+			for(int i = 0; i<APPENDS; i++) sum += array.remove(0);
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public long iterate(){
+		long sum = 0;
+		for(var v : values){
+			sum += v;
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public long stream(){
+		return values.stream().mapToLong(Integer::longValue).sum();
+	}
+	
+	@Benchmark
+	public long parallelStream(){
+		return values.parallelStream().mapToLong(Integer::longValue).sum();
+	}
+	
+	@Benchmark
+	public Object[] toArray(){
+		return values.toArray();
+	}
+}
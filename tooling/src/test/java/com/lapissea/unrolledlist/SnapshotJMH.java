@@ -0,0 +1,55 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of handing the current state to a reader followed by a single write to the live list. For snapshots the write
+ * pays for copying the node headers and one array.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SnapshotJMH{
+	
+	@Param({"1000", "100000", "10000000"})
+	public int size;
+	
+	private UnrolledLinkedList<Integer> list;
+	private Random                      rand;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		rand = new Random(42);
+		list = new UnrolledLinkedList<>(32);
+		list.addAll(rand.ints(size).boxed().toList());
+	}
+	
+	@Benchmark
+	public Object arrayListCopy(){
+		var copy = new ArrayList<>(list);
+		list.set(rand.nextInt(size), 1);
+		return copy;
+	}
+	
+	@Benchmark
+	public Object snapshot(){
+		var snap = list.snapshot();
+		list.set(rand.nextInt(size), 1);
+		return snap;
+	}
+}
@@ -12,10 +12,15 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Sort of a shuffled list. Every invocation first writes the next of a set of pre-generated shuffles back in to the
+ * list through a list iterator, so the score includes a linear refill that is the same for every type.
+ */
 @Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
 @Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
 @Fork(2)
@@ -24,6 +29,8 @@ import java.util.concurrent.TimeUnit;
 //@BenchmarkMode(Mode.AverageTime)
 public class SortJMH{
 	
+	private static final int SHUFFLES = 64;
+	
 	@Param({"20", "100", "300", "500"})
 	public int size;
 	@Param({"-1", "16", "32"})
@@ -32,17 +39,31 @@ public class SortJMH{
 	public int seed = -1;
 	
 	private List<Integer> list;
+	private Integer[][]   shuffles;
+	private int           cursor;
 	
-	@Setup(Level.Invocation)
+	@Setup(Level.Trial)
 	public void setUp(){
 		var rand  = seed == -1? new Random() : new Random(seed);
 		var chSiz = chunkSize == -1? 16 : chunkSize;
 		list = Utils.gen(rand, chSiz, size, 3, false);
 		if(chunkSize == -1) list = new ArrayList<>(list);
+		
+		shuffles = new Integer[SHUFFLES][];
+		for(int i = 0; i<SHUFFLES; i++){
+			var values = new ArrayList<>(list);
+			Collections.shuffle(values, rand);
+			shuffles[i] = values.toArray(Integer[]::new);
+		}
 	}
 	
 	@Benchmark
 	public void sort(){
+		var it = list.listIterator();
+		for(var v : shuffles[cursor++&(SHUFFLES - 1)]){
+			it.next();
+			it.set(v);
+		}
 		list.sort(Integer::compare);
 	}
 	
@@ -0,0 +1,75 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merging a burst of unsorted elements in to a sorted list. Batch is {@link UnrolledLinkedList#addAllRemainSorted},
+ * Loop calls {@link UnrolledLinkedList#addRemainSorted} per element and Array appends to an {@link ArrayList} and sorts
+ * it.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SortedBatchJMH{
+	
+	@Param({"Batch", "Loop", "Array"})
+	public String _type;
+	@Param({"1000000"})
+	public int    size;
+	@Param({"10000", "100000"})
+	public int    batchSize;
+	
+	private List<Integer>               base, batch;
+	private UnrolledLinkedList<Integer> unrolled;
+	private ArrayList<Integer>          array;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		var rand = new Random(42);
+		base = rand.ints(size).sorted().boxed().toList();
+		batch = rand.ints(batchSize).boxed().toList();
+	}
+	
+	@Setup(Level.Invocation)
+	public void reset(){
+		if(_type.equals("Array")){
+			array = new ArrayList<>(base);
+		}else{
+			unrolled = new UnrolledLinkedList<>(32);
+			unrolled.addAll(base);
+		}
+	}
+	
+	@Benchmark
+	public Object insert(){
+		switch(_type){
+			case "Batch" -> unrolled.addAllRemainSorted(batch, Integer::compare);
+			case "Loop" -> {
+				for(var v : batch) unrolled.addRemainSorted(Integer::compare, v);
+			}
+			case "Array" -> {
+				array.addAll(batch);
+				Collections.sort(array);
+			}
+			default -> throw new IllegalArgumentException(_type);
+		}
+		return _type.equals("Array")? array : unrolled;
+	}
+}
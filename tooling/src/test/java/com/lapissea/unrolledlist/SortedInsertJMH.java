@@ -0,0 +1,77 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remain sorted insert followed by removal of the inserted element, so the size stays the same. TreeMap is used as a
+ * multiset that maps a value to its count.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SortedInsertJMH{
+	
+	@Param({
+		"Array", "TreeMap",
+		"Unrolled 8", "Unrolled 16", "Unrolled 32", "Unrolled 64", "Unrolled 128", "Unrolled 256",
+		"Indexed 32", "Adaptive"
+	})
+	public String _type;
+	@Param({"10", "1000", "100000", "10000000"})
+	public int    size;
+	
+	private List<Integer>               list;
+	private TreeMap<Integer, Integer>   tree;
+	private UnrolledLinkedList<Integer> unrolled;
+	private int[]                       values;
+	private int                         cursor;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		var rand = new Random(42);
+		var init = rand.ints(size).sorted().toArray();
+		values = rand.ints(Utils.OPS).toArray();
+		
+		if(_type.equals("TreeMap")){
+			tree = new TreeMap<>();
+			for(var v : init) tree.merge(v, 1, Integer::sum);
+			return;
+		}
+		list = ListOpsJMH.create(_type);
+		for(var v : init) list.add(v);
+		if(list instanceof UnrolledLinkedList<Integer> u) unrolled = u;
+	}
+	
+	@Benchmark
+	public Object insertRemove(){
+		var v = values[cursor++&(Utils.OPS - 1)];
+		if(unrolled != null){
+			return unrolled.remove(unrolled.addRemainSorted(Integer::compare, v));
+		}
+		if(tree != null){
+			tree.merge(v, 1, Integer::sum);
+			return tree.merge(v, -1, (a, b) -> a + b == 0? null : a + b);
+		}
+		var idx = Collections.binarySearch(list, v);
+		if(idx<0) idx = -idx - 1;
+		list.add(idx, v);
+		return list.remove(idx);
+	}
+}
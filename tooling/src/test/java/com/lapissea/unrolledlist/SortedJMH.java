@@ -0,0 +1,82 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorted insert, lookup and range scans on an already sorted list. The insert benchmark truncates back to the original
+ * size after every run, which makes the first insert of the next run rebuild the fences.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SortedJMH{
+	
+	@Param({"Unrolled 32", "Indexed 32"})
+	public String _type;
+	@Param({"10000", "1000000"})
+	public int    size;
+	
+	private UnrolledLinkedList<Integer> list;
+	private Random                      rand;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		var type = _type.split(" ");
+		list = new UnrolledLinkedList<>(Integer.parseInt(type[1]), type[0].equals("Indexed"));
+		rand = new Random(42);
+		rand.ints(size, 0, Integer.MAX_VALUE).sorted().forEach(list::add);
+	}
+	
+	/**
+	 * A run of sorted inserts that keep patching the fences
+	 */
+	@Benchmark
+	public Object insertRun(){
+		var l = list;
+		var r = rand;
+		for(int i = 0; i<100; i++) l.addRemainSorted(Integer::compare, r.nextInt(Integer.MAX_VALUE));
+		l.truncate(size);
+		return l;
+	}
+	
+	@Benchmark
+	public boolean sortedContains(){
+		return list.sortedContains(rand.nextInt(Integer.MAX_VALUE), Integer::compare);
+	}
+	
+	@Benchmark
+	public int lowerBound(){
+		return list.lowerBound(rand.nextInt(Integer.MAX_VALUE), Integer::compare);
+	}
+	
+	@Benchmark
+	public Integer floor(){
+		return list.floor(rand.nextInt(Integer.MAX_VALUE), Integer::compare);
+	}
+	
+	/**
+	 * Range scan over about 1000 elements
+	 */
+	@Benchmark
+	public long rangeSum(){
+		var from = rand.nextInt(Integer.MAX_VALUE - 1000*(Integer.MAX_VALUE/size));
+		var to   = from + 1000*(Integer.MAX_VALUE/size);
+		long sum = 0;
+		for(var v : list.subRange(from, to, Integer::compare)) sum += v;
+		return sum;
+	}
+}
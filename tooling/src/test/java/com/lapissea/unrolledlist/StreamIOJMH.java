@@ -0,0 +1,112 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Save and load of a 10M element list through a file. The bytes counter divided by 10^9 is the throughput in GB/s.
+ * The Java serialization benchmarks are the baseline.
+ */
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StreamIOJMH{
+	
+	private static final int SIZE = 10_000_000;
+	
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Bytes{
+		public long bytes;
+		
+		@Setup(Level.Iteration)
+		public void reset(){
+			bytes = 0;
+		}
+	}
+	
+	private UnrolledLinkedList<Long> list;
+	private ArrayList<Long>          array;
+	private Path                     file, serFile;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException{
+		list = new UnrolledLinkedList<>(32);
+		list.addAll(new Random(42).longs(SIZE).boxed().toList());
+		array = new ArrayList<>(list);
+		
+		file = Files.createTempFile("unrolled", ".bin");
+		serFile = Files.createTempFile("unrolled", ".ser");
+		save(new Bytes());
+		serialize(new Bytes());
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException{
+		Files.deleteIfExists(file);
+		Files.deleteIfExists(serFile);
+	}
+	
+	@Benchmark
+	public void save(Bytes counter) throws IOException{
+		try(var ch = FileChannel.open(file, WRITE, CREATE, TRUNCATE_EXISTING)){
+			list.writeTo(ch, ElementCodec.LONG);
+			counter.bytes += ch.position();
+		}
+	}
+	
+	@Benchmark
+	public Object load(Bytes counter) throws IOException{
+		var res = new UnrolledLinkedList<Long>(32);
+		try(var ch = FileChannel.open(file, READ)){
+			res.readFrom(ch, ElementCodec.LONG);
+			counter.bytes += ch.position();
+		}
+		return res;
+	}
+	
+	@Benchmark
+	public void serialize(Bytes counter) throws IOException{
+		try(var out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(serFile), 1<<16))){
+			out.writeObject(array);
+		}
+		counter.bytes += Files.size(serFile);
+	}
+	
+	@Benchmark
+	public Object deserialize(Bytes counter) throws IOException, ClassNotFoundException{
+		try(var in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(serFile), 1<<16))){
+			var res = in.readObject();
+			counter.bytes += Files.size(serFile);
+			return res;
+		}
+	}
+}
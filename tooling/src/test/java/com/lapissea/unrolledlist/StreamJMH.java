@@ -0,0 +1,55 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StreamJMH{
+	
+	@Param({"Array", "Unrolled 32", "Indexed 32"})
+	public String _type;
+	@Param({"10000", "1000000", "10000000"})
+	public int    size;
+	
+	private List<Integer> list;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		var type   = _type.split(" ");
+		var values = new Random(42).ints(size, 0, 1000).boxed().toList();
+		list = switch(type[0]){
+			case "Array" -> new ArrayList<>();
+			case "Unrolled" -> new UnrolledLinkedList<>(Integer.parseInt(type[1]));
+			case "Indexed" -> new UnrolledLinkedList<>(Integer.parseInt(type[1]), true);
+			default -> throw new IllegalArgumentException(_type);
+		};
+		list.addAll(values);
+	}
+	
+	@Benchmark
+	public long sequentialSum(){
+		return list.stream().mapToLong(i -> i).sum();
+	}
+	
+	@Benchmark
+	public long parallelSum(){
+		return list.parallelStream().mapToLong(i -> i).sum();
+	}
+}
@@ -0,0 +1,82 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paging through a large list in windows of a fixed size, each window is a fresh sub list at a random position.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SubListJMH{
+	
+	@Param({"Array", "Unrolled 32", "Indexed 32"})
+	public String _type;
+	@Param({"1000000"})
+	public int    size;
+	@Param({"100", "1000"})
+	public int    window;
+	
+	private List<Integer> list;
+	private Random        rand;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		var type = _type.split(" ");
+		list = switch(type[0]){
+			case "Array" -> new ArrayList<>();
+			case "Unrolled" -> new UnrolledLinkedList<>(Integer.parseInt(type[1]));
+			case "Indexed" -> new UnrolledLinkedList<>(Integer.parseInt(type[1]), true);
+			default -> throw new IllegalArgumentException(_type);
+		};
+		list.addAll(new Random(42).ints(size, 0, 1000).boxed().toList());
+		rand = new Random(69);
+	}
+	
+	private List<Integer> page(){
+		var from = rand.nextInt(size - window);
+		return list.subList(from, from + window);
+	}
+	
+	@Benchmark
+	public long pageGet(){
+		var  page = page();
+		long sum  = 0;
+		for(int i = 0; i<page.size(); i++){
+			sum += page.get(i);
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public long pageIterate(){
+		long sum = 0;
+		for(var v : page()){
+			sum += v;
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public long pageForEach(){
+		long[] sum = {0};
+		page().forEach(v -> sum[0] += v);
+		return sum[0];
+	}
+}
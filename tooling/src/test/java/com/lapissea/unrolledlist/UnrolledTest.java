@@ -5,9 +5,22 @@ import com.lapissea.util.NanoTimer;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.Spliterator;
 import java.util.stream.IntStream;
 
 import static com.lapissea.unrolledlist.Utils.gen;
@@ -59,12 +72,244 @@ public class UnrolledTest{
 		}
 	}
 	
+	@Test(dependsOnMethods = "sortTest")
+	void parallelSortTest(){
+		var rand = new Random(69);
+		for(int i = 0; i<40; i++){
+			var size     = rand.nextInt(i<20? 1000 : 200_000);
+			var unrolled = new UnrolledLinkedList<Integer>(rand.nextInt(4, 64), rand.nextBoolean());
+			unrolled.addAll(rand.ints(size, 0, 10_000).boxed().toList());
+			var ref = new ArrayList<>(unrolled);
+			
+			unrolled.parallelSort(Integer::compare);
+			ref.sort(Integer::compare);
+			Assert.assertEquals(unrolled, ref);
+		}
+	}
+	
 	public static void main(String[] args){
 		new UnrolledTest().listIteratorFuzz();
 	}
 	
 	@Test(dependsOnMethods = {"simpleRemove", "simpleContains"})
 	void addRemoveContainsFuzz(){
+		addRemoveContainsFuzz(new UnrolledLinkedList<>(), 10_000_000);
+	}
+	
+	@Test(dependsOnMethods = "addRemoveContainsFuzz")
+	void indexedAddRemoveContainsFuzz(){
+		addRemoveContainsFuzz(new UnrolledLinkedList<>(4, true), 2_000_000);
+	}
+	
+	@Test(dependsOnMethods = "addRemoveContainsFuzz")
+	void adaptiveAddRemoveContainsFuzz(){
+		addRemoveContainsFuzz(UnrolledLinkedList.adaptive(), 2_000_000);
+		addRemoveContainsFuzz(UnrolledLinkedList.adaptive(true), 2_000_000);
+	}
+	
+	@Test(dependsOnMethods = "addRemoveContainsFuzz")
+	void pooledAddRemoveContainsFuzz(){
+		addRemoveContainsFuzz(pooled(new UnrolledLinkedList<>(4)), 2_000_000);
+		addRemoveContainsFuzz(pooled(new UnrolledLinkedList<>(4, true)), 2_000_000);
+		addRemoveContainsFuzz(pooled(UnrolledLinkedList.adaptive()), 2_000_000);
+	}
+	
+	private static <T> UnrolledLinkedList<T> pooled(UnrolledLinkedList<T> list){
+		list.setArrayPoolSize(8);
+		return list;
+	}
+	
+	@Test(dependsOnMethods = "addRemoveContainsFuzz")
+	void compactingAddRemoveContainsFuzz(){
+		addRemoveContainsFuzz(compacting(new UnrolledLinkedList<>(4)), 2_000_000);
+		addRemoveContainsFuzz(compacting(new UnrolledLinkedList<>(4, true)), 2_000_000);
+		addRemoveContainsFuzz(compacting(pooled(UnrolledLinkedList.adaptive())), 2_000_000);
+	}
+	
+	private static <T> UnrolledLinkedList<T> compacting(UnrolledLinkedList<T> list){
+		list.setIncrementalCompaction(0.9);
+		return list;
+	}
+	
+	@Test(dependsOnMethods = {"removeRangeFuzz", "snapshotFuzz"})
+	void compactFuzz(){
+		var rand = new Random(4242);
+		for(int i = 0; i<1000; i++){
+			var unrolled = switch(i%4){
+				case 0 -> new UnrolledLinkedList<Integer>(rand.nextInt(4, 20));
+				case 1 -> new UnrolledLinkedList<Integer>(rand.nextInt(4, 20), true);
+				case 2 -> UnrolledLinkedList.<Integer>adaptive();
+				default -> pooled(new UnrolledLinkedList<Integer>(rand.nextInt(4, 20), rand.nextBoolean()));
+			};
+			if(rand.nextBoolean()) unrolled.setIncrementalCompaction(rand.nextDouble(0.5, 1));
+			var ref = new ArrayList<Integer>();
+			var init = rand.ints(rand.nextInt(2000), 0, 100).boxed().toList();
+			unrolled.addAll(init);
+			ref.addAll(init);
+			
+			UnrolledLinkedList<Integer> snap     = null;
+			List<Integer>               snapRef = null;
+			try{
+				for(int j = 0; j<200; j++){
+					switch(rand.nextInt(8)){
+						case 0 -> {
+							var idx = rand.nextInt(ref.size() + 1);
+							var val = rand.nextInt(100);
+							unrolled.add(idx, val);
+							ref.add(idx, val);
+						}
+						case 1, 2 -> {
+							if(ref.isEmpty()) break;
+							var idx = rand.nextInt(ref.size());
+							Assert.assertEquals(unrolled.remove(idx), ref.remove(idx));
+						}
+						case 3 -> {
+							int from = rand.nextInt(ref.size() + 1), to = rand.nextInt(from, Math.min(ref.size(), from + 50) + 1);
+							unrolled.subList(from, to).clear();
+							ref.subList(from, to).clear();
+						}
+						case 4 -> {
+							if(ref.isEmpty()) break;
+							if(rand.nextBoolean()) Assert.assertEquals(unrolled.pollFirst(), ref.remove(0));
+							else Assert.assertEquals(unrolled.pollLast(), ref.remove(ref.size() - 1));
+						}
+						case 5 -> unrolled.compact(rand.nextDouble(0.1, 1));
+						case 6 -> unrolled.trimToSize();
+						case 7 -> {
+							snap = unrolled.snapshot();
+							snapRef = List.copyOf(ref);
+						}
+					}
+					Assert.assertEquals(unrolled.size(), ref.size());
+					if(!ref.isEmpty()){
+						var idx = rand.nextInt(ref.size());
+						Assert.assertEquals(unrolled.get(idx), ref.get(idx));
+					}
+				}
+				Assert.assertEquals(unrolled, ref);
+				var it = unrolled.listIterator(unrolled.size());
+				for(int j = ref.size() - 1; j>=0; j--){
+					Assert.assertEquals(it.previous(), ref.get(j));
+				}
+				if(snap != null) Assert.assertEquals(snap, snapRef);
+			}catch(Throwable e){
+				Assert.fail("Fail on iteration: " + i, e);
+			}
+		}
+		Assert.assertThrows(IllegalArgumentException.class, () -> new UnrolledLinkedList<>().compact(0));
+		Assert.assertThrows(IllegalArgumentException.class, () -> new UnrolledLinkedList<>().compact(1.5));
+	}
+	
+	@Test(dependsOnMethods = "compactFuzz")
+	void stats(){
+		var list = new UnrolledLinkedList<Integer>(16, true);
+		Assert.assertEquals(list.stats().nodeCount(), 0);
+		
+		var rand = new Random(42);
+		list.addAll(rand.ints(2000, 0, 100).boxed().toList());
+		for(int i = 0; i<1000; i++){
+			list.remove(rand.nextInt(list.size()));
+		}
+		var stats = list.stats();
+		Assert.assertEquals(stats.size(), 1000);
+		Assert.assertEquals(Arrays.stream(stats.fillHistogram()).sum(), stats.nodeCount());
+		Assert.assertEquals(stats.wastedSlots(), stats.capacity() - stats.size());
+		Assert.assertEquals(stats.capacity(), stats.nodeCount()*16L);
+		
+		list.trimToSize();
+		stats = list.stats();
+		Assert.assertEquals(stats.nodeCount(), 63);
+		Assert.assertEquals(stats.wastedSlots(), 8);
+		Assert.assertEquals(stats.fillHistogram()[9], 62);
+		Assert.assertTrue(stats.estimatedHeapBytes()>63*(16*4));
+		if(!UnrolledLinkedList.STATS){
+			Assert.assertEquals(stats.walks(), 0);
+			Assert.assertEquals(stats.defrags(), 0);
+		}
+	}
+	
+	/**
+	 * The size constants of stats() follow the compressed oops layout of the declared fields: a 12 byte header, 4 bytes
+	 * per reference, int and float, 8 per long and double, 1 per boolean, padded to 8.
+	 */
+	@Test
+	void layoutSizes() throws ClassNotFoundException{
+		Assert.assertEquals(shallowSize(UnrolledLinkedList.class), UnrolledLinkedList.LIST_BYTES);
+		Assert.assertEquals(shallowSize(Class.forName(UnrolledLinkedList.class.getName() + "$Node")), UnrolledLinkedList.NODE_BYTES);
+		Assert.assertEquals(shallowSize(Class.forName(UnrolledLinkedList.class.getName() + "$IndexBranch")), UnrolledLinkedList.BRANCH_BYTES);
+		
+		var list = new UnrolledLinkedList<Integer>(16);
+		Assert.assertEquals(list.stats().estimatedHeapBytes(), UnrolledLinkedList.LIST_BYTES);
+		list.add(1);
+		var array = (UnrolledLinkedList.ARRAY_HEADER_BYTES + 16*4 + 7)&~7;
+		Assert.assertEquals(list.stats().estimatedHeapBytes(), UnrolledLinkedList.LIST_BYTES + UnrolledLinkedList.NODE_BYTES + array);
+	}
+	private static int shallowSize(Class<?> type){
+		int bytes = 12;
+		for(var c = type; c != null; c = c.getSuperclass()){
+			for(var field : c.getDeclaredFields()){
+				if(Modifier.isStatic(field.getModifiers())) continue;
+				var t = field.getType();
+				if(t == long.class || t == double.class) bytes += 8;
+				else if(t == boolean.class || t == byte.class) bytes += 1;
+				else if(t == short.class || t == char.class) bytes += 2;
+				else bytes += 4;
+			}
+		}
+		return (bytes + 7)&~7;
+	}
+	
+	/**
+	 * Grows the list large enough for node capacity to change, then drains it so grown nodes shrink again
+	 */
+	@Test(dependsOnMethods = "adaptiveAddRemoveContainsFuzz")
+	void adaptiveGrowShrink(){
+		var rand = new Random(69);
+		for(var unrolled : List.of(UnrolledLinkedList.<Integer>adaptive(), UnrolledLinkedList.<Integer>adaptive(true))){
+			var ref = new ArrayList<Integer>();
+			for(int i = 0; i<60_000; i++){
+				var idx = rand.nextInt(ref.size() + 1);
+				unrolled.add(idx, i);
+				ref.add(idx, i);
+				if(i%3 == 0){
+					idx = rand.nextInt(ref.size());
+					Assert.assertEquals(unrolled.get(idx), ref.get(idx));
+				}
+				if(i%10_000 == 0){
+					//Read heavy phase, pushes the capacity up
+					for(int j = 0; j<200_000; j++) unrolled.get(rand.nextInt(unrolled.size()));
+				}
+			}
+			var batch = rand.ints(5000).boxed().toList();
+			var idx   = rand.nextInt(ref.size());
+			unrolled.addAll(idx, batch);
+			ref.addAll(idx, batch);
+			Assert.assertEquals(unrolled, ref);
+			
+			while(!ref.isEmpty()){
+				idx = rand.nextInt(ref.size());
+				Assert.assertEquals(unrolled.remove(idx), ref.remove(idx));
+				if(ref.size()%5000 == 0) Assert.assertEquals(unrolled, ref);
+			}
+			Assert.assertTrue(unrolled.isEmpty());
+		}
+	}
+	
+	/**
+	 * Insert only growth has no reads to push the capacity up, nodes still need to reach the size based capacity
+	 */
+	@Test(dependsOnMethods = "adaptiveGrowShrink")
+	void adaptiveWriteHeavyCapacity(){
+		var rand = new Random(42);
+		var list = UnrolledLinkedList.<Integer>adaptive();
+		for(int i = 0; i<100_000; i++){
+			list.add(rand.nextInt(list.size() + 1), i);
+		}
+		var stats = list.stats();
+		Assert.assertTrue(stats.capacity()>stats.nodeCount()*768L, stats.toString());
+	}
+	
+	private static void addRemoveContainsFuzz(UnrolledLinkedList<Integer> unrolled, int iters){
 		enum Actions{
 			ADD(false),
 			ADD_I(true),
@@ -80,10 +325,8 @@ public class UnrolledTest{
 		
 		var rand = new Random(69);
 		
-		var unrolled = new UnrolledLinkedList<Integer>();
-		var t        = new NanoTimer.Simple();
-		var list     = new CheckList<>(unrolled, new ArrayList<>());
-		var iters    = 10_000_000;
+		var t    = new NanoTimer.Simple();
+		var list = new CheckList<>(unrolled, new ArrayList<>());
 		t.start();
 		for(int i = 0; i<iters; i++){
 			if(i%(iters/100) == 0) LogUtil.println(i/(double)iters);
@@ -120,6 +363,238 @@ public class UnrolledTest{
 		LogUtil.println(t.ms());
 	}
 	
+	@Test(dependsOnMethods = "addRemoveContainsFuzz")
+	void nearAccessFuzz(){
+		var rand = new Random(69);
+		
+		for(var unrolled : List.of(new UnrolledLinkedList<Integer>(8), new UnrolledLinkedList<Integer>(8, true), UnrolledLinkedList.<Integer>adaptive())){
+			var list   = new CheckList<>(unrolled, new ArrayList<>());
+			var cursor = 0;
+			for(int i = 0; i<200_000; i++){
+				var val = rand.nextInt(10, 99);
+				cursor = Math.max(0, Math.min(list.size(), cursor + rand.nextInt(-3, 4)));
+				try{
+					switch(rand.nextInt(4)){
+						case 0 -> list.add(cursor, val);
+						case 1 -> {
+							if(cursor<list.size()) list.remove(cursor);
+							else list.add(val);
+						}
+						default -> {
+							if(cursor<list.size()) list.get(cursor);
+						}
+					}
+				}catch(Throwable e){
+					Assert.fail("Fail on iteration: " + i + " at " + cursor, e);
+				}
+			}
+		}
+	}
+	
+	@Test(dependsOnMethods = "addRemoveContainsFuzz")
+	void addAllFuzz(){
+		var rand = new Random(69);
+		
+		for(var unrolled : List.of(new UnrolledLinkedList<Integer>(8), new UnrolledLinkedList<Integer>(8, true), UnrolledLinkedList.<Integer>adaptive())){
+			var list = new CheckList<>(unrolled, new ArrayList<>());
+			for(int i = 0; i<20_000; i++){
+				if(rand.nextInt(200) == 0) list.clear();
+				var index = rand.nextInt(list.size() + 1);
+				try{
+					switch(rand.nextInt(4)){
+						case 0 -> list.addAll(index, rand.ints(rand.nextInt(100), 10, 99).boxed().toList());
+						case 1 -> list.addAll(rand.ints(rand.nextInt(100), 10, 99).boxed().toList());
+						case 2 -> list.add(index, rand.nextInt(10, 99));
+						case 3 -> {
+							for(int j = rand.nextInt(80); j>0 && !list.isEmpty(); j--){
+								list.remove(rand.nextInt(list.size()));
+							}
+						}
+					}
+					if(!list.isEmpty()) list.get(rand.nextInt(list.size()));
+				}catch(Throwable e){
+					Assert.fail("Fail on iteration: " + i + " at " + index, e);
+				}
+			}
+		}
+	}
+	
+	@Test(dependsOnMethods = "addAllFuzz")
+	void removeRangeFuzz(){
+		var rand = new Random(69);
+		
+		for(var unrolled : List.of(new UnrolledLinkedList<Integer>(8), new UnrolledLinkedList<Integer>(8, true), UnrolledLinkedList.<Integer>adaptive())){
+			var ref = new ArrayList<Integer>();
+			for(int i = 0; i<20_000; i++){
+				var batch = rand.ints(rand.nextInt(200), 10, 99).boxed().toList();
+				var index = rand.nextInt(ref.size() + 1);
+				unrolled.addAll(index, batch);
+				ref.addAll(index, batch);
+				
+				var from = rand.nextInt(ref.size() + 1);
+				var to   = from + rand.nextInt(ref.size() - from + 1);
+				try{
+					switch(rand.nextInt(3)){
+						case 0 -> {
+							unrolled.subList(from, to).clear();
+							ref.subList(from, to).clear();
+						}
+						case 1 -> {
+							unrolled.truncate(to);
+							ref.subList(to, ref.size()).clear();
+						}
+						case 2 -> {
+							unrolled.dropFirst(from);
+							ref.subList(0, from).clear();
+						}
+					}
+					Assert.assertEquals(unrolled.size(), ref.size());
+					if(!ref.isEmpty()){
+						var idx = rand.nextInt(ref.size());
+						Assert.assertEquals(unrolled.get(idx), ref.get(idx));
+					}
+					if(i%100 == 0) Assert.assertEquals(unrolled, ref);
+				}catch(Throwable e){
+					Assert.fail("Fail on iteration: " + i + " at " + from + ".." + to, e);
+				}
+			}
+		}
+	}
+	
+	@Test(dependsOnMethods = "addRemoveContainsFuzz")
+	void spliteratorSplits(){
+		var rand = new Random(69);
+		for(int i = 0; i<200; i++){
+			var unrolled = new UnrolledLinkedList<Integer>(rand.nextInt(4, 32), rand.nextBoolean());
+			unrolled.addAll(rand.ints(rand.nextInt(20_000), 0, 1000).boxed().toList());
+			for(int j = rand.nextInt(2000); j>0 && !unrolled.isEmpty(); j--){
+				unrolled.remove(rand.nextInt(unrolled.size()));
+			}
+			
+			var res = new ArrayList<Integer>();
+			splitAll(unrolled.spliterator(), rand, res);
+			Assert.assertEquals(res, unrolled);
+			Assert.assertEquals(unrolled.parallelStream().toList(), unrolled);
+		}
+	}
+	
+	private static void splitAll(Spliterator<Integer> split, Random rand, List<Integer> dest){
+		var size   = split.estimateSize();
+		var prefix = rand.nextInt(4) == 0? null : split.trySplit();
+		if(prefix != null){
+			Assert.assertEquals(prefix.estimateSize() + split.estimateSize(), size);
+			splitAll(prefix, rand, dest);
+			splitAll(split, rand, dest);
+			return;
+		}
+		if(rand.nextBoolean()) split.tryAdvance(dest::add);
+		split.forEachRemaining(dest::add);
+	}
+	
+	@Test(dependsOnMethods = {"addAllFuzz", "removeRangeFuzz"})
+	void snapshotFuzz(){
+		var rand = new Random(69);
+		
+		for(var unrolled : List.of(new UnrolledLinkedList<Integer>(8), new UnrolledLinkedList<Integer>(8, true), UnrolledLinkedList.<Integer>adaptive(),
+		                           pooled(new UnrolledLinkedList<Integer>(8)))){
+			var ref       = new ArrayList<Integer>();
+			var snapshots = new ArrayList<UnrolledLinkedList<Integer>>();
+			var expected  = new ArrayList<List<Integer>>();
+			
+			for(int i = 0; i<30_000; i++){
+				var val   = rand.nextInt(10, 99);
+				var index = ref.isEmpty()? 0 : rand.nextInt(ref.size());
+				try{
+					switch(rand.nextInt(9)){
+						case 0 -> {
+							snapshots.add(unrolled.snapshot());
+							expected.add(new ArrayList<>(ref));
+						}
+						case 1 -> {
+							unrolled.add(index, val);
+							ref.add(index, val);
+						}
+						case 2 -> {
+							unrolled.add(val);
+							ref.add(val);
+						}
+						case 3 -> {
+							if(!ref.isEmpty()) Assert.assertEquals(unrolled.remove(index), ref.remove(index));
+						}
+						case 4 -> {
+							if(!ref.isEmpty()) Assert.assertEquals(unrolled.set(index, val), ref.set(index, val));
+						}
+						case 5 -> {
+							var batch = rand.ints(rand.nextInt(40), 10, 99).boxed().toList();
+							unrolled.addAll(index, batch);
+							ref.addAll(index, batch);
+						}
+						case 6 -> {
+							var to = Math.min(ref.size(), index + rand.nextInt(20));
+							unrolled.subList(index, to).clear();
+							ref.subList(index, to).clear();
+						}
+						case 7 -> {
+							if(rand.nextInt(50) == 0){
+								unrolled.sort(Integer::compare);
+								ref.sort(Integer::compare);
+							}
+						}
+						case 8 -> {
+							if(!ref.isEmpty()){
+								var iter = unrolled.listIterator(index);
+								iter.next();
+								iter.set(val);
+								iter.remove();
+								ref.remove(index);
+							}
+						}
+					}
+				}catch(Throwable e){
+					Assert.fail("Fail on iteration: " + i + " at " + index, e);
+				}
+				Assert.assertEquals(unrolled.size(), ref.size());
+				if(snapshots.size()>20){
+					var s = rand.nextInt(snapshots.size());
+					Assert.assertEquals(snapshots.remove(s), expected.remove(s));
+				}
+			}
+			Assert.assertEquals(unrolled, ref);
+			for(int i = 0; i<snapshots.size(); i++){
+				Assert.assertEquals(snapshots.get(i), expected.get(i));
+			}
+		}
+	}
+	
+	@Test(dependsOnMethods = "snapshotFuzz")
+	void snapshotRules(){
+		var list = new UnrolledLinkedList<Integer>(4);
+		for(int i = 0; i<20; i++) list.add(i);
+		
+		var stale = list.listIterator();
+		stale.next();
+		var snap = list.snapshot();
+		Assert.assertTrue(snap.isSnapshot());
+		Assert.assertThrows(UnsupportedOperationException.class, () -> snap.add(1));
+		Assert.assertThrows(UnsupportedOperationException.class, () -> snap.remove(0));
+		Assert.assertThrows(UnsupportedOperationException.class, snap::clear);
+		Assert.assertThrows(UnsupportedOperationException.class, () -> {
+			var iter = snap.iterator();
+			iter.next();
+			iter.remove();
+		});
+		
+		//Created after the snapshot, the first write moves it over to the new nodes
+		var fresh = list.listIterator();
+		fresh.next();
+		fresh.remove();
+		Assert.assertThrows(ConcurrentModificationException.class, stale::remove);
+		
+		Assert.assertEquals(snap.size(), 20);
+		Assert.assertEquals(snap.get(0), 0);
+		Assert.assertEquals(list.get(0), 1);
+	}
+	
 	@Test(dependsOnMethods = {"simpleAdd", "addRemoveContainsFuzz"})
 	void iteratorFuzz(){
 		var rand = new Random(69);
@@ -180,6 +655,435 @@ public class UnrolledTest{
 	}
 	
 	
+	/**
+	 * Sorted inserts patch the fences in place, other writes make them stale. Both paths are checked against plain
+	 * searches over a reference list with many duplicates.
+	 */
+	@Test(dependsOnMethods = "addRemainSortTest")
+	void sortedSearchFuzz(){
+		var rand = new Random(69);
+		for(var unrolled : List.of(new UnrolledLinkedList<Integer>(8), new UnrolledLinkedList<Integer>(8, true), UnrolledLinkedList.<Integer>adaptive())){
+			var ref = new ArrayList<Integer>();
+			for(int i = 0; i<40_000; i++){
+				var val = rand.nextInt(2000);
+				try{
+					switch(rand.nextInt(10)){
+						case 0 -> {
+							if(!ref.isEmpty()){
+								var idx = rand.nextInt(ref.size());
+								Assert.assertEquals(unrolled.remove(idx), ref.remove(idx));
+							}
+						}
+						case 1 -> {
+							if(!ref.isEmpty() && rand.nextInt(20) == 0){
+								var snap = unrolled.snapshot();
+								Assert.assertEquals(snap.lowerBound(val, Integer::compare), lowerBound(ref, val));
+								Assert.assertEquals(snap.sortedContains(val, Integer::compare), ref.contains(val));
+							}
+						}
+						case 2, 3 -> {
+							Assert.assertEquals(unrolled.lowerBound(val, Integer::compare), lowerBound(ref, val));
+							Assert.assertEquals(unrolled.upperBound(val, Integer::compare), lowerBound(ref, val + 1));
+							Assert.assertEquals(unrolled.sortedIndexOf(val, Integer::compare), ref.indexOf(val));
+							var found = unrolled.binarySearch(val, Integer::compare);
+							Assert.assertEquals(found, ref.contains(val)? ref.indexOf(val) : -lowerBound(ref, val) - 1);
+						}
+						default -> {
+							var idx = lowerBound(ref, val + 1);
+							ref.add(idx, val);
+							Assert.assertEquals(unrolled.addRemainSorted(Integer::compare, val), idx);
+						}
+					}
+				}catch(Throwable e){
+					Assert.fail("Fail on iteration: " + i, e);
+				}
+			}
+			Assert.assertEquals(unrolled, ref);
+		}
+	}
+	
+	/**
+	 * The comparator only looks at value/10 so the order of equal elements is checked against a stable sort
+	 */
+	@Test(dependsOnMethods = "sortedSearchFuzz")
+	void addAllRemainSortedFuzz(){
+		var rand = new Random(69);
+		Comparator<Integer> c = Comparator.comparingInt(i -> i/10);
+		for(var unrolled : List.of(new UnrolledLinkedList<Integer>(8), new UnrolledLinkedList<Integer>(8, true), UnrolledLinkedList.<Integer>adaptive(),
+		                           pooled(new UnrolledLinkedList<Integer>(16)))){
+			var ref = new ArrayList<Integer>();
+			for(int i = 0; i<3000; i++){
+				try{
+					var batch = rand.ints(rand.nextInt(rand.nextBoolean()? 10 : 500), 0, 5000).boxed().toList();
+					unrolled.addAllRemainSorted(batch, c);
+					ref.addAll(batch);
+					ref.sort(c);
+					
+					switch(rand.nextInt(6)){
+						case 0 -> {
+							var idx = rand.nextInt(ref.size());
+							Assert.assertEquals(unrolled.remove(idx), ref.remove(idx));
+						}
+						case 1 -> {
+							var val = rand.nextInt(5000);
+							Assert.assertEquals(unrolled.addRemainSorted(c, val), lowerBound(ref, val/10*10 + 10));
+							ref.add(lowerBound(ref, val/10*10 + 10), val);
+						}
+						case 2 -> {
+							if(ref.size()>20_000){
+								var to = rand.nextInt(ref.size());
+								unrolled.truncate(to);
+								ref.subList(to, ref.size()).clear();
+							}
+						}
+						case 3 -> {
+							if(rand.nextInt(10) == 0){
+								var snap     = unrolled.snapshot();
+								var expected = new ArrayList<>(ref);
+								unrolled.addAllRemainSorted(List.of(1, 2, 3), c);
+								ref.addAll(List.of(1, 2, 3));
+								ref.sort(c);
+								Assert.assertEquals(snap, expected);
+							}
+						}
+					}
+					if(i%100 == 0) Assert.assertEquals(unrolled, ref);
+				}catch(Throwable e){
+					Assert.fail("Fail on iteration: " + i, e);
+				}
+			}
+			Assert.assertEquals(unrolled, ref);
+		}
+	}
+	
+	@Test(dependsOnMethods = "sortedSearchFuzz")
+	void sortedRangeFuzz(){
+		var rand = new Random(69);
+		for(int i = 0; i<2000; i++){
+			UnrolledLinkedList<Integer> unrolled = switch(i%3){
+				case 0 -> new UnrolledLinkedList<>(rand.nextInt(4, 20));
+				case 1 -> new UnrolledLinkedList<>(rand.nextInt(4, 20), true);
+				default -> UnrolledLinkedList.adaptive();
+			};
+			var ref = new ArrayList<Integer>();
+			for(int j = 0, j2 = rand.nextInt(500); j<j2; j++){
+				var val = rand.nextInt(300);
+				ref.add(lowerBound(ref, val + 1), val);
+				unrolled.addRemainSorted(Integer::compare, val);
+			}
+			var list = rand.nextBoolean()? unrolled : unrolled.snapshot();
+			try{
+				for(int j = 0; j<50; j++){
+					int a = rand.nextInt(-10, 310), b = rand.nextInt(a, 320);
+					int lo = lowerBound(ref, a), hi = lowerBound(ref, b);
+					
+					Assert.assertEquals(list.floor(a, Integer::compare), lowerBound(ref, a + 1) == 0? null : ref.get(lowerBound(ref, a + 1) - 1));
+					Assert.assertEquals(list.ceiling(a, Integer::compare), lo == ref.size()? null : ref.get(lo));
+					Assert.assertEquals(list.higher(a, Integer::compare), lowerBound(ref, a + 1) == ref.size()? null : ref.get(lowerBound(ref, a + 1)));
+					Assert.assertEquals(list.lower(a, Integer::compare), lo == 0? null : ref.get(lo - 1));
+					
+					Assert.assertEquals(list.headList(a, Integer::compare), ref.subList(0, lo));
+					Assert.assertEquals(list.headList(a, true, Integer::compare), ref.subList(0, lowerBound(ref, a + 1)));
+					Assert.assertEquals(list.tailList(a, Integer::compare), ref.subList(lo, ref.size()));
+					Assert.assertEquals(list.tailList(a, false, Integer::compare), ref.subList(lowerBound(ref, a + 1), ref.size()));
+					Assert.assertEquals(list.subRange(a, b, Integer::compare), ref.subList(lo, hi));
+					Assert.assertEquals(list.subRange(a, false, b, true, Integer::compare), ref.subList(lowerBound(ref, a + 1), Math.max(lowerBound(ref, a + 1), lowerBound(ref, b + 1))));
+				}
+				Assert.assertThrows(IllegalArgumentException.class, () -> list.subRange(2, 1, Integer::compare));
+			}catch(Throwable e){
+				Assert.fail("Fail on iteration: " + i, e);
+			}
+		}
+	}
+	
+	@Test(dependsOnMethods = {"removeRangeFuzz", "listIteratorFuzz"})
+	void subListFuzz(){
+		var rand = new Random(420);
+		for(int i = 0; i<2000; i++){
+			var unrolled = switch(i%4){
+				case 0 -> new UnrolledLinkedList<Integer>(rand.nextInt(4, 20));
+				case 1 -> new UnrolledLinkedList<Integer>(rand.nextInt(4, 20), true);
+				case 2 -> UnrolledLinkedList.<Integer>adaptive();
+				default -> pooled(new UnrolledLinkedList<Integer>(rand.nextInt(4, 20)));
+			};
+			var ref = new ArrayList<Integer>();
+			for(int j = 0, j2 = rand.nextInt(300); j<j2; j++){
+				var val = rand.nextInt(1000);
+				ref.add(val);
+				unrolled.add(val);
+			}
+			var frozen = rand.nextInt(4) == 0;
+			List<Integer> list = frozen? unrolled.snapshot() : unrolled;
+			
+			List<Integer> refView = ref, view = list;
+			try{
+				for(int depth = rand.nextInt(1, 4); depth>0; depth--){
+					int from = rand.nextInt(refView.size() + 1), to = rand.nextInt(from, refView.size() + 1);
+					refView = refView.subList(from, to);
+					view = view.subList(from, to);
+				}
+				for(int j = 0; j<50; j++){
+					Assert.assertEquals(view.size(), refView.size());
+					switch(frozen? rand.nextInt(3) : rand.nextInt(10)){
+						case 0 -> {
+							if(refView.isEmpty()) break;
+							var idx = rand.nextInt(refView.size());
+							Assert.assertEquals(view.get(idx), refView.get(idx));
+						}
+						case 1 -> Assert.assertEquals(view, refView);
+						case 2 -> {
+							var res = new ArrayList<Integer>();
+							view.forEach(res::add);
+							Assert.assertEquals(res, refView);
+							Assert.assertEquals(view.stream().toList(), refView);
+						}
+						case 3 -> {
+							var idx = rand.nextInt(refView.size() + 1);
+							var val = rand.nextInt(1000);
+							refView.add(idx, val);
+							view.add(idx, val);
+						}
+						case 4 -> {
+							if(refView.isEmpty()) break;
+							var idx = rand.nextInt(refView.size());
+							Assert.assertEquals(view.remove(idx), refView.remove(idx));
+						}
+						case 5 -> {
+							if(refView.isEmpty()) break;
+							var idx = rand.nextInt(refView.size());
+							var val = rand.nextInt(1000);
+							Assert.assertEquals(view.set(idx, val), refView.set(idx, val));
+						}
+						case 6 -> {
+							var idx   = rand.nextInt(refView.size() + 1);
+							var batch = rand.ints(rand.nextInt(30), 0, 1000).boxed().toList();
+							refView.addAll(idx, batch);
+							view.addAll(idx, batch);
+						}
+						case 7 -> {
+							int from = rand.nextInt(refView.size() + 1), to = rand.nextInt(from, Math.min(refView.size(), from + 20) + 1);
+							refView.subList(from, to).clear();
+							view.subList(from, to).clear();
+						}
+						case 8 -> {
+							var idx = rand.nextInt(refView.size() + 1);
+							var ri  = refView.listIterator(idx);
+							var vi  = view.listIterator(idx);
+							for(int k = 0; k<20; k++){
+								switch(rand.nextInt(5)){
+									case 0, 1 -> {
+										Assert.assertEquals(vi.hasNext(), ri.hasNext());
+										if(ri.hasNext()) Assert.assertEquals(vi.next(), ri.next());
+									}
+									case 2 -> {
+										Assert.assertEquals(vi.hasPrevious(), ri.hasPrevious());
+										if(ri.hasPrevious()) Assert.assertEquals(vi.previous(), ri.previous());
+									}
+									case 3 -> {
+										var val = rand.nextInt(1000);
+										ri.add(val);
+										vi.add(val);
+									}
+									case 4 -> {
+										Assert.assertEquals(vi.nextIndex(), ri.nextIndex());
+										Assert.assertEquals(vi.previousIndex(), ri.previousIndex());
+									}
+								}
+							}
+						}
+						case 9 -> {
+							refView.clear();
+							view.clear();
+						}
+					}
+				}
+				Assert.assertEquals(view, refView);
+				Assert.assertEquals(list, ref);
+			}catch(Throwable e){
+				Assert.fail("Fail on iteration: " + i, e);
+			}
+		}
+	}
+	
+	@Test(dependsOnMethods = {"addRemoveContainsFuzz", "listIteratorFuzz"})
+	void dequeFuzz(){
+		var rand = new Random(1234);
+		for(int i = 0; i<1000; i++){
+			var unrolled = switch(i%4){
+				case 0 -> new UnrolledLinkedList<Integer>(rand.nextInt(4, 20));
+				case 1 -> new UnrolledLinkedList<Integer>(rand.nextInt(4, 20), true);
+				case 2 -> UnrolledLinkedList.<Integer>adaptive();
+				default -> pooled(new UnrolledLinkedList<Integer>(rand.nextInt(4, 20)));
+			};
+			var ref = new ArrayDeque<Integer>();
+			try{
+				for(int j = 0; j<500; j++){
+					var val = rand.nextInt(100);
+					switch(rand.nextInt(13)){
+						case 0, 1 -> {
+							ref.addFirst(val);
+							unrolled.addFirst(val);
+						}
+						case 2, 3 -> {
+							ref.addLast(val);
+							unrolled.addLast(val);
+						}
+						case 4 -> Assert.assertEquals(unrolled.pollFirst(), ref.pollFirst());
+						case 5 -> Assert.assertEquals(unrolled.pollLast(), ref.pollLast());
+						case 6 -> {
+							Assert.assertEquals(unrolled.peekFirst(), ref.peekFirst());
+							Assert.assertEquals(unrolled.peekLast(), ref.peekLast());
+						}
+						case 7 -> {
+							if(ref.isEmpty()){
+								Assert.assertThrows(NoSuchElementException.class, unrolled::removeFirst);
+								Assert.assertThrows(NoSuchElementException.class, unrolled::getLast);
+							}else{
+								Assert.assertEquals(unrolled.getLast(), ref.getLast());
+								Assert.assertEquals(unrolled.removeFirst(), ref.removeFirst());
+							}
+						}
+						case 8 -> Assert.assertEquals(unrolled.removeLastOccurrence(val), ref.removeLastOccurrence(val));
+						case 9 -> {
+							var res = new ArrayList<Integer>();
+							unrolled.descendingIterator().forEachRemaining(res::add);
+							var expected = new ArrayList<Integer>();
+							ref.descendingIterator().forEachRemaining(expected::add);
+							Assert.assertEquals(res, expected);
+						}
+						case 10 -> {
+							//Positional access in between so the finger is used after the deque operations
+							if(ref.isEmpty()) break;
+							var idx = rand.nextInt(ref.size());
+							Assert.assertEquals(unrolled.get(idx), new ArrayList<>(ref).get(idx));
+						}
+						case 11 -> {
+							var snap = unrolled.snapshot();
+							ref.addFirst(val);
+							unrolled.push(val);
+							Assert.assertEquals(snap.size(), ref.size() - 1);
+						}
+						case 12 -> {
+							//The reversed view swaps the ends
+							var reversed = unrolled.reversed();
+							ref.addFirst(val);
+							reversed.addLast(val);
+							Assert.assertEquals(reversed.pollFirst(), ref.pollLast());
+							var expected = new ArrayList<Integer>();
+							ref.descendingIterator().forEachRemaining(expected::add);
+							Assert.assertEquals(reversed, expected);
+							Assert.assertSame(reversed.reversed(), unrolled);
+						}
+					}
+					Assert.assertEquals(unrolled.size(), ref.size());
+				}
+				Assert.assertEquals(unrolled, new ArrayList<>(ref));
+			}catch(Throwable e){
+				Assert.fail("Fail on iteration: " + i, e);
+			}
+		}
+	}
+	
+	@Test(dependsOnMethods = "addAllFuzz")
+	void streamRoundTrip() throws IOException{
+		var rand = new Random(99);
+		for(int i = 0; i<200; i++){
+			var size = i%10 == 0? rand.nextInt(200000) : rand.nextInt(2000);
+			UnrolledLinkedList<Long> src = switch(i%3){
+				case 0 -> new UnrolledLinkedList<>(rand.nextInt(4, 64));
+				case 1 -> new UnrolledLinkedList<>(rand.nextInt(4, 64), true);
+				default -> UnrolledLinkedList.adaptive();
+			};
+			src.addAll(rand.longs(size).boxed().toList());
+			var out = new ByteArrayOutputStream();
+			(rand.nextBoolean()? src : src.snapshot()).writeTo(Channels.newChannel(out), ElementCodec.LONG);
+			
+			var prefix = rand.longs(rand.nextInt(50)).boxed().toList();
+			UnrolledLinkedList<Long> dest = i%2 == 0? new UnrolledLinkedList<>(rand.nextInt(4, 64)) : new UnrolledLinkedList<>(rand.nextInt(4, 64), true);
+			dest.addAll(prefix);
+			dest.readFrom(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())), ElementCodec.LONG);
+			
+			var expected = new ArrayList<>(prefix);
+			expected.addAll(src);
+			Assert.assertEquals(dest, expected, "Fail on iteration: " + i);
+			//Still a valid list after reading
+			dest.add(dest.size()/2, 1L);
+			dest.removeFirst();
+			expected.add(expected.size()/2, 1L);
+			expected.remove(0);
+			Assert.assertEquals(dest, expected, "Fail on iteration: " + i);
+		}
+		
+		var strings = new UnrolledLinkedList<String>(8);
+		strings.addAll(List.of("", "ascii", "\u00e9t\u00e9", "\u4e2d\u6587", "\ud83d\ude00", "\ud800 unpaired", "x".repeat(300000)));
+		strings.add(null);
+		var out = new ByteArrayOutputStream();
+		strings.writeTo(Channels.newChannel(out), ElementCodec.STRING);
+		var read = new UnrolledLinkedList<String>();
+		read.readFrom(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())), ElementCodec.STRING);
+		Assert.assertEquals(read.get(5), "? unpaired");
+		read.set(5, "\ud800 unpaired");
+		Assert.assertEquals(read, strings);
+		
+		var truncated = Arrays.copyOf(out.toByteArray(), out.size() - 1);
+		var target    = new UnrolledLinkedList<String>();
+		target.add("a");
+		Assert.assertThrows(EOFException.class, () -> target.readFrom(Channels.newChannel(new ByteArrayInputStream(truncated)), ElementCodec.STRING));
+		Assert.assertEquals(target, List.of("a"));
+		
+		//A failed read does not count as a write, so the headers stay shared with the snapshot and the iterator stays valid
+		target.add("b");
+		var snap = target.snapshot();
+		var iter = target.iterator();
+		iter.next();
+		Assert.assertThrows(EOFException.class, () -> target.readFrom(Channels.newChannel(new ByteArrayInputStream(truncated)), ElementCodec.STRING));
+		iter.remove();
+		Assert.assertEquals(target, List.of("b"));
+		Assert.assertEquals(snap, List.of("a", "b"));
+	}
+	
+	@Test
+	void streamsBackToBack() throws IOException{
+		var rand = new Random(7);
+		for(int i = 0; i<20; i++){
+			var longs = new UnrolledLinkedList<Long>(rand.nextInt(4, 64));
+			longs.addAll(rand.longs(rand.nextInt(100_000)).boxed().toList());
+			var strings = new UnrolledLinkedList<String>(8);
+			for(int j = 0, count = rand.nextInt(100); j<count; j++){
+				//Some strings do not fit in to the IO buffer
+				strings.add("x".repeat(rand.nextInt(10) == 0? rand.nextInt(200_000) : rand.nextInt(100)));
+			}
+			
+			var out     = new ByteArrayOutputStream();
+			var outChan = Channels.newChannel(out);
+			longs.writeTo(outChan, ElementCodec.LONG);
+			strings.writeTo(outChan, ElementCodec.STRING);
+			longs.writeTo(outChan, ElementCodec.LONG);
+			
+			var in    = Channels.newChannel(new ByteArrayInputStream(out.toByteArray()));
+			var read1 = new UnrolledLinkedList<Long>();
+			var read2 = new UnrolledLinkedList<String>();
+			var read3 = new UnrolledLinkedList<Long>();
+			read1.readFrom(in, ElementCodec.LONG);
+			read2.readFrom(in, ElementCodec.STRING);
+			read3.readFrom(in, ElementCodec.LONG);
+			Assert.assertEquals(read1, longs);
+			Assert.assertEquals(read2, strings);
+			Assert.assertEquals(read3, longs);
+			Assert.assertEquals(in.read(ByteBuffer.allocate(1)), -1);
+		}
+	}
+	
+	private static int lowerBound(List<Integer> sorted, int val){
+		int lo = 0, hi = sorted.size();
+		while(lo<hi){
+			var mid = (lo + hi)>>>1;
+			if(sorted.get(mid)<val) lo = mid + 1;
+			else hi = mid;
+		}
+		return lo;
+	}
+	
 	@Test(dependsOnMethods = {"simpleAdd", "addRemoveContainsFuzz"})
 	void listIteratorFuzz(){
 		enum Action{
@@ -13,11 +13,30 @@ import java.util.function.IntFunction;
 
 public class Utils{
 	
+	/**
+	 * Length of the pre-generated operation streams, a power of two so a cursor can wrap with a mask
+	 */
+	public static final int OPS = 1<<16;
+	
+	/**
+	 * Operation stream for benchmarks. Values are read with a wrapping cursor so nothing is generated per invocation.
+	 */
+	public static int[] ops(Random r, int bound){
+		return r.ints(OPS, 0, bound).toArray();
+	}
 	
 	public static List<Integer> gen(Random r, int maxSize, int digs){
 		return gen(r, 16, maxSize, digs, true);
 	}
 	public static List<Integer> gen(Random r, int chunkSize, int maxSize, int digs, boolean doTest){
+		var list = gen(r, new UnrolledLinkedList<Integer>(chunkSize), maxSize, digs);
+		return doTest? new CheckList<>(list, new ArrayList<>(list)) : list;
+	}
+	/**
+	 * Fills the list with a mix of appends and removals at random positions. The same seed gives the same operations
+	 * for any list type.
+	 */
+	public static <L extends List<Integer>> L gen(Random r, L list, int maxSize, int digs){
 		int min = 1;
 		int max = 9;
 		for(int i = 0; i<digs - 1; i++){
@@ -25,7 +44,6 @@ public class Utils{
 			max = max*10 + 9;
 		}
 		
-		var list = new UnrolledLinkedList<Integer>(chunkSize);
 		int size = r.nextInt(maxSize);
 		for(int i = 0; i<size; i++){
 			list.add(r.nextInt(min, max));
@@ -33,7 +51,7 @@ public class Utils{
 				list.remove(r.nextInt(list.size()));
 			}
 		}
-		return doTest? new CheckList<>(list, new ArrayList<>(list)) : list;
+		return list;
 	}
 	
 	public static <T> Queue<List<T>> asyncGen(int iters, int chunkSize, int threads, IntFunction<T> gen){
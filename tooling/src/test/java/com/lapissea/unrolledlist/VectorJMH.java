@@ -0,0 +1,124 @@
+package com.lapissea.unrolledlist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node array scans with and without the vector kernels. Both variants run the same code, the scalar forks have the
+ * kernels turned off with a system property.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VectorJMH{
+	
+	private static final String VECTOR = "--add-modules=jdk.incubator.vector";
+	private static final String SCALAR = "-Dunrolledlist.vector=false";
+	
+	@Param({"Int", "Long", "Double"})
+	public String _type;
+	@Param({"1000000", "10000000"})
+	public int    size;
+	@Param({"64"})
+	public int    rollSize;
+	
+	private UnrolledIntList    ints;
+	private UnrolledLongList   longs;
+	private UnrolledDoubleList doubles;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		var rand = new Random(42);
+		switch(_type){
+			case "Int" -> {
+				ints = new UnrolledIntList(rollSize);
+				for(int i = 0; i<size; i++) ints.addInt(rand.nextInt(1000));
+			}
+			case "Long" -> {
+				longs = new UnrolledLongList(rollSize);
+				for(int i = 0; i<size; i++) longs.addLong(rand.nextInt(1000));
+			}
+			case "Double" -> {
+				doubles = new UnrolledDoubleList(rollSize);
+				for(int i = 0; i<size; i++) doubles.addDouble(rand.nextInt(1000));
+			}
+			default -> throw new IllegalArgumentException(_type);
+		}
+	}
+	
+	/**
+	 * The value is not in the list so every element is checked
+	 */
+	private int indexOf(){
+		return switch(_type){
+			case "Int" -> ints.indexOf(-1);
+			case "Long" -> longs.indexOf(-1);
+			case "Double" -> doubles.indexOf(-1);
+			default -> throw new IllegalArgumentException(_type);
+		};
+	}
+	private int count(){
+		return switch(_type){
+			case "Int" -> ints.count(ValueComparison.LT, 500);
+			case "Long" -> longs.count(ValueComparison.LT, 500);
+			case "Double" -> doubles.count(ValueComparison.LT, 500);
+			default -> throw new IllegalArgumentException(_type);
+		};
+	}
+	private double sum(){
+		return switch(_type){
+			case "Int" -> ints.sum();
+			case "Long" -> longs.sum();
+			case "Double" -> doubles.sum();
+			default -> throw new IllegalArgumentException(_type);
+		};
+	}
+	private double max(){
+		return switch(_type){
+			case "Int" -> ints.max().orElseThrow();
+			case "Long" -> longs.max().orElseThrow();
+			case "Double" -> doubles.max().orElseThrow();
+			default -> throw new IllegalArgumentException(_type);
+		};
+	}
+	
+	@Benchmark
+	@Fork(value = 2, jvmArgsAppend = VECTOR)
+	public int indexOfVector(){ return indexOf(); }
+	@Benchmark
+	@Fork(value = 2, jvmArgsAppend = SCALAR)
+	public int indexOfScalar(){ return indexOf(); }
+	
+	@Benchmark
+	@Fork(value = 2, jvmArgsAppend = VECTOR)
+	public int countVector(){ return count(); }
+	@Benchmark
+	@Fork(value = 2, jvmArgsAppend = SCALAR)
+	public int countScalar(){ return count(); }
+	
+	@Benchmark
+	@Fork(value = 2, jvmArgsAppend = VECTOR)
+	public double sumVector(){ return sum(); }
+	@Benchmark
+	@Fork(value = 2, jvmArgsAppend = SCALAR)
+	public double sumScalar(){ return sum(); }
+	
+	@Benchmark
+	@Fork(value = 2, jvmArgsAppend = VECTOR)
+	public double maxVector(){ return max(); }
+	@Benchmark
+	@Fork(value = 2, jvmArgsAppend = SCALAR)
+	public double maxScalar(){ return max(); }
+}